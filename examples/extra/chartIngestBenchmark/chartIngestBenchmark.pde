@@ -0,0 +1,86 @@
+/**
+ * skatolo Chart Ingest Benchmark
+ *
+ * several acquisition threads offer samples to the data sets of a chart,
+ * in batches or one at a time, without locking. The chart pushes the
+ * queued samples at the beginning of each frame. The sustained number of
+ * samples per second, pushed and dropped, is shown every second.
+ *
+ */
+
+import tech.lity.rea.skatolo.*;
+import tech.lity.rea.skatolo.gui.controllers.*;
+
+Skatolo skatolo;
+Chart chart;
+
+int producers = 4;
+int batch = 64;
+String[] sets = { "a", "b" };
+
+long lastTime;
+long lastIngested, lastDropped;
+String result = "";
+
+void setup() {
+  size(800, 400);
+  skatolo = new Skatolo(this);
+  chart = skatolo.addChart("chart")
+    .setPosition(50, 50)
+    .setSize(700, 250)
+    .setRange(-1, 1)
+    .setView(Chart.LINE);
+  for (String s : sets) {
+    chart.addDataSet(s);
+  }
+  chart.getDataSet("b").setColors(color(255, 100, 0));
+  chart.enableScrolling();
+
+  for (int i = 0; i < producers; i++) {
+    final int id = i;
+    final ChartDataSet set = chart.getDataSet(sets[i % sets.length]);
+    Thread t = new Thread(new Runnable() {
+      public void run() {
+        float[] values = new float[batch];
+        long n = 0;
+        while (true) {
+          for (int j = 0; j < batch; j++) {
+            values[j] = sin(n++ * 0.01f + id) * 0.8f;
+          }
+          if (id % 2 == 0) {
+            set.offer(values);
+          } else {
+            for (int j = 0; j < batch; j++) {
+              set.offer(values[j]);
+            }
+          }
+          Thread.yield();
+        }
+      }
+    });
+    t.setDaemon(true);
+    t.start();
+  }
+  lastTime = millis();
+}
+
+void draw() {
+  background(0);
+  if (millis() - lastTime >= 1000) {
+    float seconds = (millis() - lastTime) / 1000.0;
+    long ingested = 0;
+    long dropped = 0;
+    for (String s : sets) {
+      ingested += chart.getDataSet(s).getIngested();
+      dropped += chart.getDataSet(s).getDropped();
+    }
+    result = "pushed " + nf((ingested - lastIngested) / seconds / 1e6, 0, 2) + " M samples/s, "
+      + "dropped " + nf((dropped - lastDropped) / seconds / 1e6, 0, 2) + " M samples/s, "
+      + nf(frameRate, 0, 1) + " fps";
+    lastIngested = ingested;
+    lastDropped = dropped;
+    lastTime = millis();
+  }
+  fill(255);
+  text(result, 50, 340);
+}
@@ -0,0 +1,51 @@
+/**
+ * skatolo Startup Benchmark
+ *
+ * measures the creation of several skatolo instances, e.g. one per
+ * projector surface. The fonts of skatolo are decoded once per process,
+ * on first use, the next instances share them. The time of a decode
+ * is printed for comparison.
+ *
+ */
+
+import tech.lity.rea.skatolo.*;
+
+int instances = 8;
+int decodes = 50;
+
+void setup() {
+  size(400, 200);
+
+  long t0 = System.nanoTime();
+  Skatolo first = new Skatolo(this);
+  long firstTime = System.nanoTime() - t0;
+
+  t0 = System.nanoTime();
+  for (int i = 1; i < instances; i++) {
+    Skatolo s = new Skatolo(this);
+    s.setAutoDraw(false);
+  }
+  long nextTime = (System.nanoTime() - t0) / (instances - 1);
+
+  t0 = System.nanoTime();
+  for (int i = 0; i < decodes; i++) {
+    new BitFont(Hacks.decodeBase64(BitFont.standard58base64));
+  }
+  long decodeTime = (System.nanoTime() - t0) / decodes;
+
+  t0 = System.nanoTime();
+  for (int i = 0; i < decodes; i++) {
+    BitFont.standard58();
+  }
+  long sharedTime = (System.nanoTime() - t0) / decodes;
+
+  println("first instance, with the font decoding: " + firstTime / 1000 + " us");
+  println("next instances:                         " + nextTime / 1000 + " us");
+  println("decoding a BitFont:                     " + decodeTime / 1000 + " us");
+  println("shared BitFont:                         " + sharedTime + " ns");
+  first.addTextlabel("result").setText("see the console").setPosition(20, 20);
+}
+
+void draw() {
+  background(0);
+}
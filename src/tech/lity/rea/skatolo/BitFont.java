@@ -67,30 +67,14 @@ public class BitFont extends PFont {
         ascent = 4;
         descent = 4;
         glyphCount = 128;
+        Constructor<PFont.Glyph> constructor = glyphConstructor();
         for (int i = 0; i < 128; i++) {
-
-			// unfortunately the PFont.Glyph constructor in the android source code is for whatever
-            // reason protected and not public like in the java application source, therefore the
-            // bitfont will only be used in the java application mode until changes to the
-            // processing core code have been made. see issue
-            // http://code.google.com/p/processing/issues/detail?id=1293
             try {
-                Constructor<PFont.Glyph>[] constructors = (Constructor<PFont.Glyph>[]) PFont.Glyph.class.getDeclaredConstructors();
-                Constructor<PFont.Glyph> constructor = (Constructor<PFont.Glyph>) PFont.Glyph.class.getDeclaredConstructors()[0];
-                constructor.setAccessible(true);
-                for (Constructor<PFont.Glyph> c : constructors) {
-                    c.setAccessible(true);
-                    if (c.getParameterTypes().length == 1) {
-                        glyphs[i] = c.newInstance(this);
-                        break;
-                    }
-                }
+                glyphs[i] = constructor.newInstance(this);
             } catch (Exception e) {
                 System.out.println(e);
             }
 
-			// as soon as the constructor is public, the line below will replace the hack above
-            // glyphs[i] = new Glyph();
             glyphs[i].value = i;
 
             if (glyphs[i].value < 128) {
@@ -117,6 +101,73 @@ public class BitFont extends PFont {
         }
     }
 
+    private static Constructor<PFont.Glyph> glyphConstructor;
+
+    /**
+     * unfortunately the PFont.Glyph constructor in the android source code is
+     * for whatever reason protected and not public like in the java
+     * application source, therefore the bitfont will only be used in the java
+     * application mode until changes to the processing core code have been
+     * made. see issue
+     * http://code.google.com/p/processing/issues/detail?id=1293
+     *
+     * As soon as the constructor is public, new Glyph() will replace the
+     * reflection. The constructor is looked up once per process.
+     */
+    @SuppressWarnings("unchecked")
+    private static synchronized Constructor<PFont.Glyph> glyphConstructor() {
+        if (glyphConstructor == null) {
+            for (Constructor<?> c : PFont.Glyph.class.getDeclaredConstructors()) {
+                if (c.getParameterTypes().length == 1) {
+                    c.setAccessible(true);
+                    glyphConstructor = (Constructor<PFont.Glyph>) c;
+                    break;
+                }
+            }
+        }
+        return glyphConstructor;
+    }
+
+    /**
+     * @return the standard 5x8 font of skatolo, decoded once per process on
+     * first use and shared by all the skatolo instances. Must not be modified.
+     */
+    public static BitFont standard58() {
+        return Standard58.FONT;
+    }
+
+    /**
+     * @return the standard 5x6 font of skatolo, used for texts, decoded once
+     * per process on first use and shared by all the skatolo instances. Must
+     * not be modified.
+     */
+    public static BitFont standard56() {
+        return Standard56.FONT;
+    }
+
+    /**
+     * @return the grixel font, decoded once per process on first use.
+     */
+    public static BitFont grixel() {
+        return Grixel.FONT;
+    }
+
+    // lazy, thread safe initialization by the class loader.
+    private static class Standard58 {
+
+        static final BitFont FONT = new BitFont(Hacks.decodeBase64(standard58base64));
+    }
+
+    private static class Standard56 {
+
+        static final BitFont FONT = new BitFont(Hacks.decodeBase64(standard56base64));
+    }
+
+    private static class Grixel {
+
+        static final BitFont FONT = new BitFont(Hacks.decodeBase64(grixelbase64));
+    }
+
     public Glyph getGlyph(char c) {
         return glyphs[(int) (c)];
     }
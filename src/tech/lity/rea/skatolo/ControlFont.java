@@ -26,12 +26,13 @@ package tech.lity.rea.skatolo;
 
 import tech.lity.rea.skatolo.gui.Label;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 
 import processing.core.PApplet;
+import processing.core.PConstants;
 import processing.core.PFont;
 import processing.core.PGraphics;
+import processing.core.PImage;
 
 /**
  * A ControlFont is a container for a PFont that can be used to customize the font of a label. (Designing the Font handling gave me a big
@@ -89,6 +90,24 @@ public class ControlFont {
 
 	private int size;
 
+	private TextMetrics metrics;
+
+	// the wrapped lines of each paragraph of a multiline label.
+	private final List<String> paragraphs = new ArrayList<String>();
+
+	private final List<List<String>> paragraphLines = new ArrayList<List<String>>();
+
+	private TextMetrics wrapMetrics;
+
+	private int wrapWidth = -1;
+
+	// the single line text drawn from the glyph atlas.
+	private PImage strip;
+
+	private String stripText;
+
+	private int stripColor;
+
 	public ControlFont(PFont theFont) {
 		this(theFont, checkFontSize(theFont));
 	}
@@ -181,50 +200,11 @@ public class ControlFont {
 			// to order to sync the line height with the height of the font,
 			// the value of lineHeightOffset carries this offset value.
 			// This becomes necessary when working with multiple lines.
-			top = -(int) theApplet.textAscent();
-			bottom = (int) theApplet.textDescent();
-			center = -(int) ((-top - bottom) / 2);
-			height = theLabel.isMultiline() ? theLabel.getHeight() : (int) (theApplet.textAscent() + theApplet.textDescent());
-			width = theLabel.isMultiline() ? theLabel.getWidth() : (int) theApplet.textWidth(theLabel.getTextFormatted());
-			if (theLabel.isMultiline()) {
-				calculateHeight(theApplet, theLabel);
-			}
+			adjustMeasures(theApplet.g, theLabel);
 			theLabel.setChanged(false);
 		}
 	}
 
-	private void calculateHeight(PApplet theApplet, Label theLabel) {
-		txt.clear();
-		String myString = theLabel.getTextFormatted();
-		List<String> paragraphs = Arrays.asList(myString.split("\n"));
-		// does not recognize linebreaks at the end of theString.
-		myString = "";
-		for (String p : paragraphs) {
-			List<String> words = Arrays.asList(p.split("\\s"));
-			for (String w : words) {
-				if (theApplet.textWidth(myString + w) < width) {
-					myString += w + " ";
-				} else {
-					txt.add(myString.substring(0, PApplet.max(0, myString.length() - 1)));
-					myString = w + " ";
-				}
-			}
-			txt.add(myString.substring(0, myString.length() - 1));
-			myString = "";
-		}
-		if (theLabel.getHeight() % theLabel.getLineHeight() != 0) {
-			txt.add("");
-		}
-		textHeight = (PApplet.round(txt.size() * theLabel.getLineHeight()));
-		int maxLineNum = PApplet.round(theLabel.getHeight() / theLabel.getLineHeight());
-		int offset = (int) (PApplet.max(0, txt.size() - maxLineNum) * (PApplet.abs(theLabel.getOffsetYratio())));
-		int lim = PApplet.min(txt.size(), maxLineNum);
-		s = "";
-		for (int i = 0; i < lim; i++) {
-			s += txt.get(i + offset) + "\n";
-		}
-	}
-        
 	public void adjust(PGraphics graphics, Label theLabel) {
 		if (theLabel.isChanged()) {
 			graphics.textFont(pfont, size);
@@ -237,36 +217,79 @@ public class ControlFont {
 			// to order to sync the line height with the height of the font,
 			// the value of lineHeightOffset carries this offset value.
 			// This becomes necessary when working with multiple lines.
-			top = -(int) graphics.textAscent();
-			bottom = (int) graphics.textDescent();
-			center = -(int) ((-top - bottom) / 2);
-			height = theLabel.isMultiline() ? theLabel.getHeight() : (int) (graphics.textAscent() + graphics.textDescent());
-			width = theLabel.isMultiline() ? theLabel.getWidth() : (int) graphics.textWidth(theLabel.getTextFormatted());
-			if (theLabel.isMultiline()) {
-				calculateHeight(graphics, theLabel);
-			}
+			adjustMeasures(graphics, theLabel);
 			theLabel.setChanged(false);
 		}
 	}
 
+	private void adjustMeasures(PGraphics graphics, Label theLabel) {
+		TextMetrics metrics = getMetrics();
+		float ascent = metrics.textAscent(graphics);
+		float descent = metrics.textDescent(graphics);
+		top = -(int) ascent;
+		bottom = (int) descent;
+		center = -(int) ((-top - bottom) / 2);
+		height = theLabel.isMultiline() ? theLabel.getHeight() : (int) (ascent + descent);
+		width = theLabel.isMultiline() ? theLabel.getWidth() : (int) metrics.textWidth(graphics, theLabel.getTextFormatted());
+		if (theLabel.isMultiline()) {
+			calculateHeight(graphics, theLabel);
+		}
+	}
+
+	/**
+	 * @return the text measures of the font at its size.
+	 */
+	public TextMetrics getMetrics() {
+		// the size of a ControlFont can change.
+		if (metrics == null || metrics.getSize() != size) {
+			metrics = TextMetrics.get(pfont, size);
+		}
+		return metrics;
+	}
+
 	private void calculateHeight(PGraphics graphics, Label theLabel) {
+		TextMetrics metrics = getMetrics();
+		if (metrics != wrapMetrics || width != wrapWidth) {
+			paragraphs.clear();
+			paragraphLines.clear();
+			wrapMetrics = metrics;
+			wrapWidth = width;
+		}
 		txt.clear();
 		String myString = theLabel.getTextFormatted();
-		List<String> paragraphs = Arrays.asList(myString.split("\n"));
-		// does not recognize linebreaks at the end of theString.
-		myString = "";
-		for (String p : paragraphs) {
-			List<String> words = Arrays.asList(p.split("\\s"));
-			for (String w : words) {
-				if (graphics.textWidth(myString + w) < width) {
-					myString += w + " ";
+		// as String.split, does not recognize linebreaks at the end of theString.
+		int end = myString.length();
+		while (end > 0 && myString.charAt(end - 1) == '\n') {
+			end--;
+		}
+		int n = 0;
+		int start = 0;
+		do {
+			int stop = myString.indexOf('\n', start);
+			if (stop < 0 || stop > end) {
+				stop = end;
+			}
+			String p = myString.substring(start, stop);
+			// only the paragraphs that changed are wrapped again.
+			if (n < paragraphs.size() && paragraphs.get(n).equals(p)) {
+				txt.addAll(paragraphLines.get(n));
+			} else {
+				List<String> lines = wrap(graphics, metrics, p);
+				if (n < paragraphs.size()) {
+					paragraphs.set(n, p);
+					paragraphLines.set(n, lines);
 				} else {
-					txt.add(myString.substring(0, PApplet.max(0, myString.length() - 1)));
-					myString = w + " ";
+					paragraphs.add(p);
+					paragraphLines.add(lines);
 				}
+				txt.addAll(lines);
 			}
-			txt.add(myString.substring(0, myString.length() - 1));
-			myString = "";
+			n++;
+			start = stop + 1;
+		} while (start < end);
+		while (paragraphs.size() > n) {
+			paragraphs.remove(paragraphs.size() - 1);
+			paragraphLines.remove(paragraphLines.size() - 1);
 		}
 		if (theLabel.getHeight() % theLabel.getLineHeight() != 0) {
 			txt.add("");
@@ -275,10 +298,53 @@ public class ControlFont {
 		int maxLineNum = PApplet.round(theLabel.getHeight() / theLabel.getLineHeight());
 		int offset = (int) (PApplet.max(0, txt.size() - maxLineNum) * (PApplet.abs(theLabel.getOffsetYratio())));
 		int lim = PApplet.min(txt.size(), maxLineNum);
-		s = "";
+		StringBuilder b = new StringBuilder();
 		for (int i = 0; i < lim; i++) {
-			s += txt.get(i + offset) + "\n";
+			b.append(txt.get(i + offset)).append('\n');
 		}
+		s = b.toString();
+	}
+
+	/**
+	 * wraps a paragraph at the words, each word is measured once and the
+	 * width of a line is the sum of the advances of its words and spaces.
+	 */
+	private List<String> wrap(PGraphics graphics, TextMetrics metrics, String theParagraph) {
+		List<String> lines = new ArrayList<String>(2);
+		float space = metrics.charWidth(graphics, ' ');
+		StringBuilder line = new StringBuilder();
+		float lineWidth = 0;
+		int length = theParagraph.length();
+		// words end at each whitespace, as String.split("\\s").
+		int last = length;
+		while (last > 0 && isWhitespace(theParagraph.charAt(last - 1))) {
+			last--;
+		}
+		int start = 0;
+		while (start <= last && (start < last || length == 0)) {
+			int stop = start;
+			while (stop < last && !isWhitespace(theParagraph.charAt(stop))) {
+				stop++;
+			}
+			String w = theParagraph.substring(start, stop);
+			float ww = w.isEmpty() ? 0 : metrics.textWidth(graphics, w);
+			if (lineWidth + ww < width) {
+				line.append(w).append(' ');
+				lineWidth += ww + space;
+			} else {
+				lines.add(line.substring(0, PApplet.max(0, line.length() - 1)));
+				line.setLength(0);
+				line.append(w).append(' ');
+				lineWidth = ww + space;
+			}
+			start = stop + 1;
+		}
+		lines.add(line.substring(0, PApplet.max(0, line.length() - 1)));
+		return lines;
+	}
+
+	private static boolean isWhitespace(char c) {
+		return c == ' ' || c == '\t' || c == '\n' || c == 0x0B || c == '\f' || c == '\r';
 	}
 
 	public int getOverflow() {
@@ -286,8 +352,7 @@ public class ControlFont {
 	}
 
 	public static int getWidthFor(String theText, Label theLabel, PApplet theApplet) {
-		theApplet.textFont(theLabel.getFont().pfont, theLabel.getFont().size);
-		return (int) theApplet.textWidth(theText);
+		return getWidthFor(theText, theLabel, theApplet.g);
 	}
         
         
@@ -312,9 +377,11 @@ public class ControlFont {
 			debug(graphics, theLabel);
 			graphics.fill(theLabel.getColor());
 			graphics.textLeading(theLabel.getLineHeight());
-			graphics.text(theLabel.getTextFormatted(), 0, 0);
-			if (RENDER_2X) {
+			if (!drawStrip(graphics, theLabel)) {
 				graphics.text(theLabel.getTextFormatted(), 0, 0);
+				if (RENDER_2X) {
+					graphics.text(theLabel.getTextFormatted(), 0, 0);
+				}
 			}
 		}
 
@@ -322,31 +389,64 @@ public class ControlFont {
 		graphics.textAlign(loadedAlign);
 	}
 
+	/**
+	 * draws a single line label from its strip, rendered again from the
+	 * glyph atlas of the font only when the text or the color changed.
+	 * 
+	 * @return false when the label has to be drawn as text.
+	 */
+	private boolean drawStrip(PGraphics graphics, Label theLabel) {
+		if (theLabel.textAlign != PConstants.LEFT || graphics.tint || graphics.imageMode != PConstants.CORNER || size != pfont.getSize()) {
+			return false;
+		}
+		GlyphAtlas atlas = GlyphAtlas.get(pfont);
+		if (atlas == null) {
+			return false;
+		}
+		String text = theLabel.getTextFormatted();
+		int color = theLabel.getColor();
+		if (strip == null || color != stripColor || !text.equals(stripText)) {
+			strip = atlas.render(text, color, strip);
+			stripText = text;
+			stripColor = color;
+		}
+		if (strip == null) {
+			return false;
+		}
+		graphics.image(strip, -atlas.getLeft(), -atlas.getTop());
+		if (RENDER_2X) {
+			graphics.image(strip, -atlas.getLeft(), -atlas.getTop());
+		}
+		return true;
+	}
+
 	private void debug(PGraphics graphics, Label theLabel) {
 		if (DEBUG) {
+			float w = getMetrics().textWidth(graphics, theLabel.getText());
 
 			graphics.stroke(0, 255, 0); // BASELINE
-			graphics.line(0, getBaseline(), graphics.textWidth(theLabel.getText()), getBaseline());
+			graphics.line(0, getBaseline(), w, getBaseline());
 
 			graphics.stroke(0, 0, 255); // TOP
-			graphics.line(0, getTop(), graphics.textWidth(theLabel.getText()), getTop());
+			graphics.line(0, getTop(), w, getTop());
 
 			graphics.stroke(255, 255, 0); // BOTTOM
-			graphics.line(0, getBottom(), graphics.textWidth(theLabel.getText()), getBottom());
+			graphics.line(0, getBottom(), w, getBottom());
 
 			graphics.stroke(255, 0, 0); // CENTER
-			graphics.line(0, getCenter(), graphics.textWidth(theLabel.getText()), getCenter());
+			graphics.line(0, getCenter(), w, getCenter());
 
 			graphics.stroke(255, 128, 0); // CENTER_CAPS
-			graphics.line(0, getTop() / 2, graphics.textWidth(theLabel.getText()), getTop() / 2);
+			graphics.line(0, getTop() / 2, w, getTop() / 2);
 
 			graphics.noStroke();
 		}
 	}
 
 	public static int getWidthFor(String theText, Label theLabel, PGraphics graphics) {
-		graphics.textFont(theLabel.getFont().pfont, theLabel.getFont().size);
-		return (int) graphics.textWidth(theText);
+		ControlFont font = theLabel.getFont();
+		graphics.textFont(font.pfont, font.size);
+		return (int) font.getMetrics().textWidth(graphics, theText);
 	}
 
 }
@@ -0,0 +1,192 @@
+/* 
+ *  skatolo is a processing gui library.
+ * 
+ * Copyright (C)  2017 by RealityTechSASU
+ * Copyright (C)  2015-2016 by Jeremy Laviole
+ * Copyright (C)  2006-2012 by Andreas Schlegel
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ * 
+ * 
+ */
+package tech.lity.rea.skatolo;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import processing.core.PApplet;
+import processing.core.PFont;
+import processing.core.PImage;
+
+/**
+ * The glyphs of a bitmap font packed into one texture. A line of text is
+ * rendered by copying the glyphs from the texture into a strip image, in the
+ * color of the text, and the strip is drawn with a single image() call
+ * instead of one tinted image per glyph.
+ *
+ * Only the fonts drawn from their glyph images can be packed: the BitFonts of
+ * skatolo, not the fonts drawn by the renderer from a native font.
+ *
+ * @see ControlFont#draw(processing.core.PGraphics, tech.lity.rea.skatolo.gui.Label)
+ */
+public class GlyphAtlas {
+
+    private static final Map<PFont, GlyphAtlas> atlases = new WeakHashMap<PFont, GlyphAtlas>();
+
+    private static final int CHARS = 128;
+
+    private final PImage texture;
+
+    // position in the texture and metrics of each character, width -1 when
+    // the character has no glyph.
+    private final int[] x = new int[CHARS];
+    private final int[] width = new int[CHARS];
+    private final int[] height = new int[CHARS];
+    private final int[] topExtent = new int[CHARS];
+    private final int[] leftExtent = new int[CHARS];
+    private final int[] setWidth = new int[CHARS];
+
+    private int top = 0;
+    private int bottom = 0;
+    private int left = 0;
+
+    private GlyphAtlas(PFont theFont) {
+        int w = 0;
+        int h = 1;
+        for (char c = 0; c < CHARS; c++) {
+            PFont.Glyph g = theFont.getGlyph(c);
+            if (g == null || g.image == null || g.image.width < g.width || g.image.height < g.height) {
+                width[c] = -1;
+                continue;
+            }
+            x[c] = w;
+            width[c] = g.width;
+            height[c] = g.height;
+            topExtent[c] = g.topExtent;
+            leftExtent[c] = g.leftExtent;
+            setWidth[c] = g.setWidth;
+            w += g.width;
+            h = Math.max(h, g.height);
+            top = Math.max(top, g.topExtent);
+            bottom = Math.max(bottom, g.height - g.topExtent);
+            left = Math.max(left, -g.leftExtent);
+        }
+        // one row of alpha masks.
+        texture = new PImage(Math.max(1, w), h, PApplet.ALPHA);
+        for (char c = 0; c < CHARS; c++) {
+            if (width[c] > 0) {
+                PImage image = theFont.getGlyph(c).image;
+                image.loadPixels();
+                for (int j = 0; j < height[c]; j++) {
+                    for (int i = 0; i < width[c]; i++) {
+                        texture.pixels[j * texture.width + x[c] + i] = image.pixels[j * image.width + i] & 0xff;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the atlas of a font, or null when the font is not drawn from
+     * its glyph images.
+     */
+    public static GlyphAtlas get(PFont theFont) {
+        if (!(theFont instanceof BitFont)) {
+            return null;
+        }
+        synchronized (atlases) {
+            GlyphAtlas atlas = atlases.get(theFont);
+            if (atlas == null) {
+                atlas = new GlyphAtlas(theFont);
+                atlases.put(theFont, atlas);
+            }
+            return atlas;
+        }
+    }
+
+    public PImage getTexture() {
+        return texture;
+    }
+
+    /**
+     * @return the height of the glyphs above the baseline, a strip is drawn
+     * at -getTop() from the baseline.
+     */
+    public int getTop() {
+        return top;
+    }
+
+    /**
+     * @return the room left of the first glyph, a strip is drawn at -getLeft()
+     * from the start of the text.
+     */
+    public int getLeft() {
+        return left;
+    }
+
+    /**
+     * renders a line of text into a strip image, as Processing draws it at
+     * the size of the font.
+     *
+     * @param theText a line of text
+     * @param theColor the color of the text
+     * @param theStrip a strip to draw into when it is large enough, or null
+     * @return the strip, null when a character has no glyph in the atlas.
+     */
+    public PImage render(String theText, int theColor, PImage theStrip) {
+        int length = theText.length();
+        int w = 1;
+        int pen = 0;
+        for (int i = 0; i < length; i++) {
+            char c = theText.charAt(i);
+            if (c >= CHARS || width[c] < 0) {
+                return null;
+            }
+            w = Math.max(w, left + pen + leftExtent[c] + width[c]);
+            pen += setWidth[c];
+        }
+        int h = Math.max(1, top + bottom);
+        PImage strip = theStrip;
+        if (strip == null || strip.width != w || strip.height != h) {
+            strip = new PImage(w, h, PApplet.ARGB);
+        }
+        // transparent pixels keep the color of the text, as the tinted
+        // glyphs, for the same filtering at sub pixel positions.
+        int rgb = theColor & 0xffffff;
+        Arrays.fill(strip.pixels, rgb);
+        int alpha = (theColor >>> 24) & 0xff;
+        pen = left;
+        for (int i = 0; i < length; i++) {
+            char c = theText.charAt(i);
+            int x0 = pen + leftExtent[c];
+            int y0 = top - topExtent[c];
+            for (int j = 0; j < height[c]; j++) {
+                int src = j * texture.width + x[c];
+                int dst = (y0 + j) * w + x0;
+                for (int k = 0; k < width[c]; k++) {
+                    int a = texture.pixels[src + k];
+                    if (a != 0) {
+                        strip.pixels[dst + k] = ((a * alpha / 255) << 24) | rgb;
+                    }
+                }
+            }
+            pen += setWidth[c];
+        }
+        strip.updatePixels();
+        return strip;
+    }
+}
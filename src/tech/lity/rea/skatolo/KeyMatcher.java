@@ -0,0 +1,371 @@
+/*
+ *  skatolo is a processing gui library.
+ *
+ * Copyright (C)  2017 by RealityTechSASU
+ * Copyright (C)  2015-2016 by Jeremy Laviole
+ * Copyright (C)  2006-2012 by Andreas Schlegel
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ *
+ *
+ */
+package tech.lity.rea.skatolo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import processing.core.PApplet;
+import tech.lity.rea.skatolo.SkatoloBase.KeyCode;
+
+/**
+ * The keyboard shortcuts compiled into lookup tables. A chord is the exact set
+ * of keys held down, it is found with the hash of the pressed keys, kept up to
+ * date by the ControlWindow on each press and release, and checked against the
+ * pressed keys bitset. A sequence is a list of chords pressed one after the
+ * other, the sequences are matched together with an automaton (Aho-Corasick)
+ * over the chords. Matching a key press does not allocate.
+ *
+ * The tables are compiled again on the next key press after a change made with
+ * mapKeyFor(), removeKeyFor() or mapKeySequenceFor(). Call invalidate() after
+ * changing SkatoloBase.keymap directly.
+ *
+ * @see SkatoloBase#mapKeyFor(ControlKey, Object...)
+ * @see SkatoloBase#mapKeySequenceFor(ControlKey, Object...)
+ */
+public class KeyMatcher {
+
+	public static final int DEFAULT_SEQUENCE_TIMEOUT = 1000;
+
+	private static final int EMPTY = -1;
+
+	private final Map<KeyCode, List<ControlKey>> keymap;
+
+	private final List<KeyCode[]> sequences = new ArrayList<KeyCode[]>();
+
+	private final List<ControlKey> sequenceKeys = new ArrayList<ControlKey>();
+
+	private boolean isDirty = true;
+
+	// chords: open addressing table on the hash of their keys.
+	private long[] chordHashes = new long[0];
+
+	private int[] chordSlots = new int[0];
+
+	private char[][] chordChars = new char[0][];
+
+	private ControlKey[][] chordActions = new ControlKey[0][];
+
+	// sequences: automaton over the chord ids, node 0 is the root.
+	private long[] edgeKeys = new long[0];
+
+	private int[] edgeTargets = new int[0];
+
+	private int[] fail = new int[1];
+
+	private ControlKey[][] nodeActions = new ControlKey[1][0];
+
+	private int node = 0;
+
+	private long lastSequenceTime = 0;
+
+	private int sequenceTimeout = DEFAULT_SEQUENCE_TIMEOUT;
+
+	/**
+	 * @exclude
+	 */
+	public KeyMatcher(Map<KeyCode, List<ControlKey>> theKeymap) {
+		keymap = theKeymap;
+	}
+
+	/**
+	 * the hash of a key code, the hash of a set of keys is the xor of the
+	 * hashes of its keys.
+	 */
+	public static long keyHash(int theKeyCode) {
+		long z = (theKeyCode + 1) * 0x9E3779B97F4A7C15L;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	public void invalidate() {
+		isDirty = true;
+	}
+
+	public KeyMatcher addSequence(ControlKey theKey, KeyCode... theChords) {
+		sequences.add(theChords);
+		sequenceKeys.add(theKey);
+		isDirty = true;
+		return this;
+	}
+
+	public KeyMatcher removeSequence(ControlKey theKey) {
+		for (int i = sequenceKeys.size() - 1; i >= 0; i--) {
+			if (sequenceKeys.get(i) == theKey) {
+				sequenceKeys.remove(i);
+				sequences.remove(i);
+			}
+		}
+		isDirty = true;
+		return this;
+	}
+
+	/**
+	 * sets the time in milliseconds after which a started sequence is
+	 * forgotten.
+	 */
+	public KeyMatcher setSequenceTimeout(int theMillis) {
+		sequenceTimeout = theMillis;
+		return this;
+	}
+
+	public int getSequenceTimeout() {
+		return sequenceTimeout;
+	}
+
+	public void resetSequence() {
+		node = 0;
+	}
+
+	/**
+	 * calls the ControlKeys matching a key press.
+	 *
+	 * @exclude
+	 * @param theKeys bitset of the pressed keys, including the new one
+	 * @param theCount number of pressed keys
+	 * @param theHash xor of the keyHash() of the pressed keys
+	 * @param theKeyCode the key just pressed
+	 * @param theTime time of the press in milliseconds
+	 */
+	public void keyPressed(long[] theKeys, int theCount, long theHash, int theKeyCode, long theTime) {
+		if (isDirty) {
+			compile();
+		}
+		int chord = findChord(theKeys, theCount, theHash);
+		if (chord != EMPTY) {
+			ControlKey[] actions = chordActions[chord];
+			for (int i = 0; i < actions.length; i++) {
+				actions[i].keyEvent();
+			}
+		}
+		if (fail.length == 1) {
+			return;
+		}
+		// a modifier pressed on its own is the start of the next chord.
+		if (chord == EMPTY && isModifier(theKeyCode)) {
+			return;
+		}
+		if (theTime - lastSequenceTime > sequenceTimeout) {
+			node = 0;
+		}
+		lastSequenceTime = theTime;
+		node = step(node, chord);
+		ControlKey[] actions = nodeActions[node];
+		if (actions.length > 0) {
+			node = 0;
+			for (int i = 0; i < actions.length; i++) {
+				actions[i].keyEvent();
+			}
+		}
+	}
+
+	private static boolean isModifier(int theKeyCode) {
+		return theKeyCode == PApplet.SHIFT || theKeyCode == PApplet.CONTROL || theKeyCode == PApplet.ALT || theKeyCode == 157;
+	}
+
+	private int findChord(long[] theKeys, int theCount, long theHash) {
+		if (chordSlots.length == 0) {
+			return EMPTY;
+		}
+		int mask = chordSlots.length - 1;
+		int i = (int) (theHash ^ (theHash >>> 32)) & mask;
+		while (chordSlots[i] != EMPTY) {
+			if (chordHashes[i] == theHash && isPressed(chordChars[chordSlots[i]], theKeys, theCount)) {
+				return chordSlots[i];
+			}
+			i = (i + 1) & mask;
+		}
+		return EMPTY;
+	}
+
+	private static boolean isPressed(char[] theChars, long[] theKeys, int theCount) {
+		if (theChars.length != theCount) {
+			return false;
+		}
+		for (char c : theChars) {
+			if ((c >> 6) >= theKeys.length || (theKeys[c >> 6] & (1L << c)) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private int step(int theNode, int theChord) {
+		if (theChord == EMPTY) {
+			return 0;
+		}
+		int n = theNode;
+		int next = edge(n, theChord);
+		while (next == EMPTY && n != 0) {
+			n = fail[n];
+			next = edge(n, theChord);
+		}
+		return next == EMPTY ? 0 : next;
+	}
+
+	private int edge(int theNode, int theChord) {
+		if (edgeTargets.length == 0) {
+			return EMPTY;
+		}
+		long key = ((long) theNode << 32) | theChord;
+		int mask = edgeTargets.length - 1;
+		int i = (int) keyHash((int) (key ^ (key >>> 29))) & mask;
+		while (edgeTargets[i] != EMPTY) {
+			if (edgeKeys[i] == key) {
+				return edgeTargets[i];
+			}
+			i = (i + 1) & mask;
+		}
+		return EMPTY;
+	}
+
+	private void compile() {
+		isDirty = false;
+		node = 0;
+
+		Map<KeyCode, Integer> ids = new HashMap<KeyCode, Integer>();
+		List<char[]> chars = new ArrayList<char[]>();
+		List<ControlKey[]> actions = new ArrayList<ControlKey[]>();
+		for (Map.Entry<KeyCode, List<ControlKey>> entry : keymap.entrySet()) {
+			if (entry.getKey().size() > 0 && !entry.getValue().isEmpty()) {
+				int id = chordId(entry.getKey(), ids, chars, actions);
+				actions.set(id, entry.getValue().toArray(new ControlKey[0]));
+			}
+		}
+
+		// the trie of the sequences.
+		List<List<int[]>> children = new ArrayList<List<int[]>>();
+		List<List<ControlKey>> outputs = new ArrayList<List<ControlKey>>();
+		Map<Long, Integer> edges = new HashMap<Long, Integer>();
+		children.add(new ArrayList<int[]>());
+		outputs.add(new ArrayList<ControlKey>());
+		for (int s = 0; s < sequences.size(); s++) {
+			KeyCode[] chords = sequences.get(s);
+			if (chords.length == 0) {
+				continue;
+			}
+			int n = 0;
+			for (KeyCode chord : chords) {
+				int id = chordId(chord, ids, chars, actions);
+				Long key = ((long) n << 32) | id;
+				Integer next = edges.get(key);
+				if (next == null) {
+					next = children.size();
+					children.add(new ArrayList<int[]>());
+					outputs.add(new ArrayList<ControlKey>());
+					children.get(n).add(new int[]{id, next});
+					edges.put(key, next);
+				}
+				n = next;
+			}
+			outputs.get(n).add(sequenceKeys.get(s));
+		}
+
+		int chordCount = chars.size();
+		int size = tableSize(chordCount);
+		chordHashes = new long[size];
+		chordSlots = new int[size];
+		Arrays.fill(chordSlots, EMPTY);
+		chordChars = chars.toArray(new char[chordCount][]);
+		chordActions = actions.toArray(new ControlKey[chordCount][]);
+		for (int c = 0; c < chordCount; c++) {
+			long hash = 0;
+			for (char k : chordChars[c]) {
+				hash ^= keyHash(k);
+			}
+			int i = (int) (hash ^ (hash >>> 32)) & (size - 1);
+			while (chordSlots[i] != EMPTY) {
+				i = (i + 1) & (size - 1);
+			}
+			chordHashes[i] = hash;
+			chordSlots[i] = c;
+		}
+
+		size = edges.isEmpty() ? 0 : tableSize(edges.size());
+		edgeKeys = new long[size];
+		edgeTargets = new int[size];
+		Arrays.fill(edgeTargets, EMPTY);
+		for (Map.Entry<Long, Integer> entry : edges.entrySet()) {
+			long key = entry.getKey();
+			int i = (int) keyHash((int) (key ^ (key >>> 29))) & (size - 1);
+			while (edgeTargets[i] != EMPTY) {
+				i = (i + 1) & (size - 1);
+			}
+			edgeKeys[i] = key;
+			edgeTargets[i] = entry.getValue();
+		}
+
+		// failure links, breadth first.
+		int nodeCount = children.size();
+		fail = new int[nodeCount];
+		int[] queue = new int[nodeCount];
+		int head = 0;
+		int tail = 0;
+		for (int[] e : children.get(0)) {
+			queue[tail++] = e[1];
+		}
+		while (head < tail) {
+			int u = queue[head++];
+			for (int[] e : children.get(u)) {
+				int v = e[1];
+				int f = fail[u];
+				while (f != 0 && edge(f, e[0]) == EMPTY) {
+					f = fail[f];
+				}
+				int g = edge(f, e[0]);
+				fail[v] = (g == EMPTY || g == v) ? 0 : g;
+				outputs.get(v).addAll(outputs.get(fail[v]));
+				queue[tail++] = v;
+			}
+		}
+		nodeActions = new ControlKey[nodeCount][];
+		for (int i = 0; i < nodeCount; i++) {
+			nodeActions[i] = outputs.get(i).toArray(new ControlKey[0]);
+		}
+	}
+
+	private static int chordId(KeyCode theChord, Map<KeyCode, Integer> ids, List<char[]> chars, List<ControlKey[]> actions) {
+		Integer id = ids.get(theChord);
+		if (id == null) {
+			id = chars.size();
+			ids.put(theChord, id);
+			chars.add(theChord.getChars().clone());
+			actions.add(new ControlKey[0]);
+		}
+		return id;
+	}
+
+	private static int tableSize(int theCount) {
+		int size = 2;
+		while (size < theCount * 2) {
+			size <<= 1;
+		}
+		return size;
+	}
+}
@@ -36,6 +36,7 @@ import tech.lity.rea.skatolo.gui.Canvas;
 import tech.lity.rea.skatolo.gui.ControlWindow;
 import tech.lity.rea.skatolo.gui.Controller;
 import tech.lity.rea.skatolo.gui.Pointer;
+import tech.lity.rea.skatolo.gui.PointerEventQueue;
 import tech.lity.rea.skatolo.gui.PointerList;
 import tech.lity.rea.skatolo.gui.group.ControllerGroup;
 import tech.lity.rea.skatolo.gui.controllers.Textfield;
@@ -154,8 +155,8 @@ public class Skatolo extends SkatoloBase {
     public boolean isTabEventsActive;
     protected boolean isUpdate;
 
-    static protected final PFont BitFontStandard56 = new BitFont(Hacks.decodeBase64(BitFont.standard56base64));
-    static protected final PFont BitFontStandard58 = new BitFont(Hacks.decodeBase64(BitFont.standard58base64));
+    static protected final PFont BitFontStandard56 = BitFont.standard56();
+    static protected final PFont BitFontStandard58 = BitFont.standard58();
 
     public ControlFont defaultFont = new ControlFont(BitFontStandard58);
     public ControlFont defaultFontForText = new ControlFont(BitFontStandard56);
@@ -786,6 +787,26 @@ public class Skatolo extends SkatoloBase {
             controlWindow.draw(graphics);
         }
     }
+
+    /**
+     * runs the update phase of a frame, once per frame. Call it with
+     * frameCount before render() when autoDraw is disabled.
+     *
+     * @see ControlWindow#update(int)
+     */
+    public void update(int theFrame) {
+        controlWindow.update(theFrame);
+    }
+
+    /**
+     * draws the controllers into a graphics without updating them, e.g. to
+     * draw the same frame into several surfaces.
+     *
+     * @see ControlWindow#render(PGraphics)
+     */
+    public void render(PGraphics graphics) {
+        controlWindow.render(graphics);
+    }
     
     public void setGraphics(PGraphics graphics){
         this.graphics = graphics;
@@ -841,6 +862,29 @@ public class Skatolo extends SkatoloBase {
         controlWindow.getPointers().removePointer(id);
     }
     
+    /**
+     * Thread safe pointer input: events pushed in this queue from any thread
+     * are applied at the beginning of the next frame. offer methods return
+     * false when the queue is full.
+     *
+     * @return the pointer event queue of the main window.
+     */
+    public PointerEventQueue getPointerQueue() {
+        return controlWindow.getPointerQueue();
+    }
+
+    public boolean queuePointerPosition(int id, int x, int y) {
+        return controlWindow.getPointerQueue().offerPosition(id, x, y);
+    }
+
+    public boolean queuePointerPress(int id, boolean pressed) {
+        return controlWindow.getPointerQueue().offerPress(id, pressed);
+    }
+
+    public boolean queuePointerRemove(int id) {
+        return controlWindow.getPointerQueue().offerRemove(id);
+    }
+
     public PointerList getPointers(){
         return controlWindow.getPointers();
     }
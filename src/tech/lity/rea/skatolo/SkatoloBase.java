@@ -95,6 +95,8 @@ public class SkatoloBase implements SkatoloConstants {
 
 	public Map<KeyCode, List<ControlKey>> keymap = new HashMap<KeyCode, List<ControlKey>>();
 
+	private final KeyMatcher keyMatcher = new KeyMatcher(keymap);
+
 	protected ControllerGroup<?> currentGroupPointer;
 
 	protected boolean isCurrentGroupPointerClosed = true;
@@ -1192,20 +1194,66 @@ public class SkatoloBase implements SkatoloConstants {
 			keymap.put(kc, new ArrayList<ControlKey>());
 		}
 		keymap.get(kc).add(theKey);
+		keyMatcher.invalidate();
 		skatolo.enableShortcuts();
 		return skatolo;
 	}
 
+	/**
+	 * maps a sequence of keys or chords, pressed one after the other, to a
+	 * ControlKey. Each step is a key (char or int), a chord (char[] or int[]),
+	 * or a String of keys pressed one after the other.
+	 * 
+	 * @see KeyMatcher#setSequenceTimeout(int)
+	 */
+	public Skatolo mapKeySequenceFor(ControlKey theKey, Object... theSteps) {
+		List<KeyCode> l = new ArrayList<KeyCode>();
+		for (Object o : theSteps) {
+			if (o instanceof Integer) {
+				l.add(new KeyCode(fromIntToChar((Integer) o)));
+			} else if (o instanceof Character) {
+				l.add(new KeyCode(fromIntToChar((Character) o)));
+			} else if (o instanceof int[]) {
+				l.add(new KeyCode(fromIntToChar(((int[]) o).clone())));
+			} else if (o instanceof char[]) {
+				char[] c = (char[]) o;
+				int[] n = new int[c.length];
+				for (int i = 0; i < c.length; i++) {
+					n[i] = c[i];
+				}
+				l.add(new KeyCode(fromIntToChar(n)));
+			} else if (o instanceof String) {
+				for (char c : ((String) o).toCharArray()) {
+					l.add(new KeyCode(fromIntToChar(c)));
+				}
+			}
+		}
+		keyMatcher.addSequence(theKey, l.toArray(new KeyCode[l.size()]));
+		skatolo.enableShortcuts();
+		return skatolo;
+	}
+
+	public Skatolo removeKeySequenceFor(ControlKey theKey) {
+		keyMatcher.removeSequence(theKey);
+		return skatolo;
+	}
+
+	public KeyMatcher getKeyMatcher() {
+		return keyMatcher;
+	}
+
 	public Skatolo removeKeyFor(ControlKey theKey, char... theChar) {
 		List<ControlKey> l = keymap.get(new KeyCode(theChar));
 		if (l != null) {
 			l.remove(theKey);
 		}
+		keyMatcher.invalidate();
 		return skatolo;
 	}
 
 	public Skatolo removeKeysFor(char... theChar) {
 		keymap.remove(new KeyCode(theChar));
+		keyMatcher.invalidate();
 		return skatolo;
 	}
 
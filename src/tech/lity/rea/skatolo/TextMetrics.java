@@ -0,0 +1,183 @@
+/*
+ *  skatolo is a processing gui library.
+ *
+ * Copyright (C)  2017 by RealityTechSASU
+ * Copyright (C)  2015-2016 by Jeremy Laviole
+ * Copyright (C)  2006-2012 by Andreas Schlegel
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ *
+ *
+ */
+package tech.lity.rea.skatolo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import processing.core.PFont;
+import processing.core.PGraphics;
+
+/**
+ * The text measures of a font at a size: the widths of strings, kept in a
+ * bounded cache evicting the least recently used strings, the advances of the
+ * characters, the ascent and the descent. All the text measures of skatolo go
+ * through the metrics of the label font.
+ * 
+ * The measures are taken with the graphics given, its font must be the font
+ * and size of the metrics. The metrics are shared by all the skatolo instances
+ * of the process, the measures lock the metrics as several sketch windows can
+ * draw at the same time.
+ * 
+ * @see ControlFont#getMetrics()
+ */
+public class TextMetrics {
+
+	public static final int DEFAULT_CAPACITY = 512;
+
+	private static int capacity = DEFAULT_CAPACITY;
+
+	private static final Map<PFont, List<TextMetrics>> metrics = new WeakHashMap<PFont, List<TextMetrics>>();
+
+	private final float size;
+
+	private final Map<String, Float> widths = new LinkedHashMap<String, Float>(64, 0.75f, true) {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override protected boolean removeEldestEntry(Map.Entry<String, Float> theEldest) {
+			return size() > capacity;
+		}
+	};
+
+	// advances of the first 256 characters, NaN until measured.
+	private final float[] advances = new float[256];
+
+	private float ascent = Float.NaN;
+
+	private float descent = Float.NaN;
+
+	private long hits = 0;
+
+	private long misses = 0;
+
+	private TextMetrics(float theSize) {
+		size = theSize;
+		Arrays.fill(advances, Float.NaN);
+	}
+
+	/**
+	 * @return the metrics of a font at a size, shared by all the labels using
+	 *         them.
+	 */
+	public static TextMetrics get(PFont theFont, float theSize) {
+		synchronized (metrics) {
+			List<TextMetrics> sizes = metrics.get(theFont);
+			if (sizes == null) {
+				sizes = new ArrayList<TextMetrics>(2);
+				metrics.put(theFont, sizes);
+			}
+			for (int i = 0; i < sizes.size(); i++) {
+				if (sizes.get(i).size == theSize) {
+					return sizes.get(i);
+				}
+			}
+			TextMetrics m = new TextMetrics(theSize);
+			sizes.add(m);
+			return m;
+		}
+	}
+
+	/**
+	 * sets the number of string widths kept by each metrics.
+	 */
+	public static void setCapacity(int theCapacity) {
+		capacity = Math.max(1, theCapacity);
+	}
+
+	public static int getCapacity() {
+		return capacity;
+	}
+
+	public float getSize() {
+		return size;
+	}
+
+	public synchronized float textWidth(PGraphics graphics, String theText) {
+		if (theText.length() == 1 && theText.charAt(0) < advances.length) {
+			return charWidth(graphics, theText.charAt(0));
+		}
+		Float w = widths.get(theText);
+		if (w == null) {
+			w = graphics.textWidth(theText);
+			widths.put(theText, w);
+			misses++;
+		} else {
+			hits++;
+		}
+		return w;
+	}
+
+	public synchronized float charWidth(PGraphics graphics, char theChar) {
+		if (theChar < advances.length) {
+			float w = advances[theChar];
+			if (w != w) {
+				w = graphics.textWidth(theChar);
+				advances[theChar] = w;
+				misses++;
+			} else {
+				hits++;
+			}
+			return w;
+		}
+		return textWidth(graphics, String.valueOf(theChar));
+	}
+
+	public synchronized float textAscent(PGraphics graphics) {
+		if (ascent != ascent) {
+			ascent = graphics.textAscent();
+		}
+		return ascent;
+	}
+
+	public synchronized float textDescent(PGraphics graphics) {
+		if (descent != descent) {
+			descent = graphics.textDescent();
+		}
+		return descent;
+	}
+
+	/**
+	 * forgets the measures, e.g. after changing the renderer.
+	 */
+	public synchronized void clear() {
+		widths.clear();
+		Arrays.fill(advances, Float.NaN);
+		ascent = Float.NaN;
+		descent = Float.NaN;
+	}
+
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	public synchronized long getMisses() {
+		return misses;
+	}
+}
@@ -0,0 +1,101 @@
+/*
+ *  skatolo is a processing gui library.
+ *
+ * Copyright (C)  2017 by RealityTechSASU
+ * Copyright (C)  2015-2016 by Jeremy Laviole
+ * Copyright (C)  2006-2012 by Andreas Schlegel
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ *
+ *
+ */
+package tech.lity.rea.skatolo.gui;
+
+/**
+ * An axis aligned rectangle in window coordinates. The absolute bounds of a
+ * controller are kept in one instance owned by the controller, and returned
+ * without any copy: read them, do not keep them. They can only be changed by
+ * the package.
+ *
+ * @see ControllerInterface#getAbsoluteBounds()
+ */
+public final class Bounds {
+
+    private float x, y, width, height;
+
+    public Bounds() {
+    }
+
+    public Bounds(float theX, float theY, float theWidth, float theHeight) {
+        set(theX, theY, theWidth, theHeight);
+    }
+
+    public float getX() {
+        return x;
+    }
+
+    public float getY() {
+        return y;
+    }
+
+    public float getWidth() {
+        return width;
+    }
+
+    public float getHeight() {
+        return height;
+    }
+
+    /**
+     * checks if a location is strictly inside the bounds, as the hit tests of
+     * the controllers do.
+     *
+     * @return boolean
+     */
+    public boolean contains(float theX, float theY) {
+        return theX > x && theX < x + width && theY > y && theY < y + height;
+    }
+
+    public boolean intersects(Bounds theBounds) {
+        return theBounds.x < x + width && theBounds.x + theBounds.width > x
+                && theBounds.y < y + height && theBounds.y + theBounds.height > y;
+    }
+
+    /**
+     * @return theBounds when it already has these values, else new bounds, so
+     * that bounds handed out are not changed from outside the package.
+     */
+    public static Bounds update(Bounds theBounds, float theX, float theY, float theWidth, float theHeight) {
+        if (theBounds != null && theBounds.x == theX && theBounds.y == theY
+                && theBounds.width == theWidth && theBounds.height == theHeight) {
+            return theBounds;
+        }
+        return new Bounds(theX, theY, theWidth, theHeight);
+    }
+
+    Bounds set(float theX, float theY, float theWidth, float theHeight) {
+        x = theX;
+        y = theY;
+        width = theWidth;
+        height = theHeight;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "Bounds [" + x + ", " + y + ", " + width + ", " + height + "]";
+    }
+}
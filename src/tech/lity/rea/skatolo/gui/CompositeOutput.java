@@ -0,0 +1,239 @@
+/*
+ *  skatolo is a processing gui library.
+ *
+ * Copyright (C)  2017 by RealityTechSASU
+ * Copyright (C)  2015-2016 by Jeremy Laviole
+ * Copyright (C)  2006-2012 by Andreas Schlegel
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ *
+ *
+ */
+package tech.lity.rea.skatolo.gui;
+
+import java.util.ArrayList;
+import java.util.List;
+import processing.core.PConstants;
+import processing.core.PGraphics;
+import processing.core.PMatrix;
+import processing.core.PMatrix2D;
+
+/**
+ * Render once, present many: the window is rendered once per frame into a
+ * shared layer, and the layer is drawn into each output with its own
+ * transform. The cost of the outputs is one image each, whatever the number
+ * of controllers.
+ *
+ * The registered outputs are offscreen graphics, they are drawn by the
+ * window after its update phase, each between beginDraw() and endDraw().
+ * present(PGraphics) draws the layer into a graphics already being drawn,
+ * e.g. by Skatolo.draw(PGraphics).
+ *
+ * @see ControlWindow#enableCompositeOutput()
+ */
+public class CompositeOutput {
+
+    private final ControlWindow window;
+    private final PGraphics layer;
+    private final List<Output> outputs = new ArrayList<Output>();
+    private int renderedFrame = -1;
+    private int presentedFrame = -1;
+
+    private long renders = 0;
+    private long presents = 0;
+
+    CompositeOutput(ControlWindow theWindow, int theWidth, int theHeight) {
+        window = theWindow;
+        layer = window.papplet().createGraphics(theWidth, theHeight);
+    }
+
+    /**
+     * An output of the composite: a graphics and the transform applied to
+     * the layer when it is drawn into it.
+     */
+    public static class Output {
+
+        private final PGraphics graphics;
+        private PMatrix matrix = null;
+        private boolean isEnabled = true;
+
+        Output(PGraphics theGraphics) {
+            graphics = theGraphics;
+        }
+
+        public PGraphics getGraphics() {
+            return graphics;
+        }
+
+        /**
+         * @param theMatrix a PMatrix2D for 2D renderers, a PMatrix3D for 3D
+         * renderers, or null for none.
+         */
+        public Output setTransform(PMatrix theMatrix) {
+            matrix = theMatrix;
+            return this;
+        }
+
+        public Output setTransform(float theX, float theY, float theScale) {
+            PMatrix2D m = new PMatrix2D();
+            m.translate(theX, theY);
+            m.scale(theScale);
+            matrix = m;
+            return this;
+        }
+
+        public PMatrix getTransform() {
+            return matrix;
+        }
+
+        public Output setEnabled(boolean theFlag) {
+            isEnabled = theFlag;
+            return this;
+        }
+
+        public boolean isEnabled() {
+            return isEnabled;
+        }
+    }
+
+    /**
+     * registers an offscreen graphics drawn every frame.
+     *
+     * @return the output, to set its transform.
+     */
+    public Output addOutput(PGraphics theGraphics) {
+        Output output = getOutput(theGraphics);
+        if (output == null) {
+            output = new Output(theGraphics);
+            outputs.add(output);
+        }
+        return output;
+    }
+
+    public Output addOutput(PGraphics theGraphics, PMatrix theMatrix) {
+        return addOutput(theGraphics).setTransform(theMatrix);
+    }
+
+    public CompositeOutput removeOutput(PGraphics theGraphics) {
+        for (int i = outputs.size() - 1; i >= 0; i--) {
+            if (outputs.get(i).graphics == theGraphics) {
+                outputs.remove(i);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * @return the output registered for a graphics, or null.
+     */
+    public Output getOutput(PGraphics theGraphics) {
+        for (int i = 0; i < outputs.size(); i++) {
+            if (outputs.get(i).graphics == theGraphics) {
+                return outputs.get(i);
+            }
+        }
+        return null;
+    }
+
+    public List<Output> getOutputs() {
+        return outputs;
+    }
+
+    /**
+     * @return the layer the window is rendered into.
+     */
+    public PGraphics getLayer() {
+        return layer;
+    }
+
+    /**
+     * renders the window into the layer, once per frame.
+     */
+    public void render() {
+        int frame = window.papplet().frameCount;
+        if (frame == renderedFrame) {
+            return;
+        }
+        renderedFrame = frame;
+        PGraphics main = window.graphics();
+        layer.beginDraw();
+        layer.clear();
+        window.render(layer);
+        layer.endDraw();
+        window.setGraphics(main);
+        renders++;
+    }
+
+    /**
+     * draws the layer into a graphics being drawn, with the transform of its
+     * output when it is registered.
+     */
+    public void present(PGraphics theGraphics) {
+        render();
+        Output output = getOutput(theGraphics);
+        draw(theGraphics, output == null ? null : output.matrix);
+    }
+
+    /**
+     * draws the layer into all the enabled outputs, once per frame.
+     *
+     * @exclude
+     */
+    public void presentAll() {
+        int frame = window.papplet().frameCount;
+        if (outputs.isEmpty() || frame == presentedFrame) {
+            return;
+        }
+        presentedFrame = frame;
+        render();
+        for (int i = 0; i < outputs.size(); i++) {
+            Output output = outputs.get(i);
+            if (output.isEnabled) {
+                output.graphics.beginDraw();
+                draw(output.graphics, output.matrix);
+                output.graphics.endDraw();
+            }
+        }
+    }
+
+    private void draw(PGraphics theGraphics, PMatrix theMatrix) {
+        theGraphics.pushMatrix();
+        theGraphics.pushStyle();
+        if (theMatrix != null) {
+            theGraphics.applyMatrix(theMatrix);
+        }
+        theGraphics.imageMode(PConstants.CORNER);
+        theGraphics.noTint();
+        theGraphics.image(layer, 0, 0);
+        theGraphics.popStyle();
+        theGraphics.popMatrix();
+        presents++;
+    }
+
+    /**
+     * @return how many times the window was rendered into the layer.
+     */
+    public long getRenderCount() {
+        return renders;
+    }
+
+    /**
+     * @return how many times the layer was drawn into a graphics.
+     */
+    public long getPresentCount() {
+        return presents;
+    }
+}
@@ -25,9 +25,8 @@
 package tech.lity.rea.skatolo.gui;
 
 import tech.lity.rea.skatolo.ControlFont;
-import tech.lity.rea.skatolo.ControlKey;
+import tech.lity.rea.skatolo.KeyMatcher;
 import tech.lity.rea.skatolo.Skatolo;
-import tech.lity.rea.skatolo.SkatoloBase;
 import tech.lity.rea.skatolo.gui.controllers.Numberbox;
 import tech.lity.rea.skatolo.gui.group.ControllerGroup;
 import tech.lity.rea.skatolo.gui.controllers.Knob;
@@ -37,15 +36,14 @@ import tech.lity.rea.skatolo.gui.group.Textarea;
 import tech.lity.rea.skatolo.gui.group.ListBox;
 import tech.lity.rea.skatolo.gui.group.DropdownList;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
 
 import processing.core.PApplet;
 import processing.core.PConstants;
 import processing.core.PVector;
 import processing.event.KeyEvent;
 import processing.event.MouseEvent;
-import tech.lity.rea.skatolo.SkatoloBase.KeyCode;
 import java.util.LinkedList;
 import processing.core.PGraphics;
 
@@ -91,11 +89,13 @@ public final class ControlWindow {
     private final PVector positionOfTabs = new PVector(0, 0, 0);
 
     private int frameCount = 0;
+    private int updatedFrame = -1;
+    private long updateTime = 0;
 
     private boolean isUsingMouseForPointing = true;
     private int mouseWheelMoved = 0;
 
-    private final List<ControllerInterface<?>> mouseoverList;
+    private final HoverStack mouseoverList;
     private boolean isMouseOver;
 
     // Replace this with an appropriate structure 
@@ -112,18 +112,56 @@ public final class ControlWindow {
     private Pointer mousePointer;
     private Pointer currentPointer;
 
+    private boolean isSinglePassDispatch = false;
+
+    // idle frames: the event pass is skipped when nothing changed.
+    private boolean isIdleSkipping = false;
+    private int inputEpoch = 0;
+    private int layoutEpoch = 0;
+    private int lastInputEpoch = -1;
+    private int lastPointerChanges = -1;
+    private boolean isEventPassRequested = true;
+    private long processedEventPasses = 0;
+    private long skippedEventPasses = 0;
+    private Pointer.Coalescing coalescing = Pointer.Coalescing.LATEST;
+    private static final int DEFAULT_HISTORY = 32;
+    private final List<Pointer> activePointers = new ArrayList<Pointer>();
+
+    private final PointerEventQueue pointerQueue = new PointerEventQueue();
+
+    private PickingBuffer pickingBuffer = null;
+
+    private RetainedRenderer retainedRenderer = null;
+    private CompositeOutput compositeOutput = null;
+    private Viewport viewport = null;
+    private DrawContext drawContext = null;
+    private long viewCacheHits = 0;
+    private long viewCacheMisses = 0;
+
+    // z-order: stamps given in the last draw pass.
+    private int drawOrder = 0;
+    private int drawOrderEpoch = 0;
+
+    private SpatialIndex spatialIndex;
+    private final List<Controller<?>> indexedControllers = new ArrayList<Controller<?>>();
+
+    // updated each frame even when hidden, see addBackgroundUpdate().
+    private final List<Controller<?>> backgroundUpdates = new ArrayList<Controller<?>>();
+
 //    protected boolean mousePressed;
     private static final int NB_KEYS = 525;   // Why ?!
     private char key;
     private int keyCode;
-    private boolean[] keys = new boolean[NB_KEYS];
+    // bitset of the pressed keys, and the xor of their KeyMatcher.keyHash().
+    private final long[] keys = new long[(NB_KEYS + 63) >> 6];
+    private long keysHash = 0;
     private int numOfActiveKeys = 0;
 
     /**
      * @exclude
      */
     public ControlWindow(final Skatolo theskatolo, final PApplet theApplet) {
-        mouseoverList = new ArrayList<ControllerInterface<?>>();
+        mouseoverList = new HoverStack(this);
         skatolo = theskatolo;
         applet = theApplet;
         graphics = skatolo.getGraphics();
@@ -208,6 +246,7 @@ public final class ControlWindow {
     }
 
     public ControlWindow activateTab(Tab theTab) {
+        markLayoutChanged();
         for (int i = 1; i < tabs.size(); i++) {
             if (tabs.get(i) == theTab) {
                 if (!((Tab) tabs.get(i)).isActive) {
@@ -277,6 +316,9 @@ public final class ControlWindow {
         }
         tabs.clear();
         tabs.clearDrawable();
+        if (spatialIndex != null) {
+            spatialIndex.clear();
+        }
     }
 
     /**
@@ -297,16 +339,34 @@ public final class ControlWindow {
      * @exclude
      */
     public void updateEvents() {
+        continuousUpdateEvents();
+        updateControllerEvents();
+    }
 
+    private void continuousUpdateEvents() {
         // Global is always there. 
         ((ControllerInterface<?>) getGlobalTab()).continuousUpdateEvents();
-        ((ControllerInterface<?>) getGlobalTab()).updateEvents();
 
+        // Continuous update is for all elements.
         for (int i = 0; i < tabs.size(); i++) {
-
-            // Continuous update is for all elements.
             ((Tab) tabs.get(i)).continuousUpdateEvents();
+        }
+    }
+
+    /**
+     * the pointer events of the controllers, without the behaviors.
+     */
+    private void updateControllerEvents() {
+
+        // Controllers are found from the location of the current pointer,
+        // the tree walk below only updates the groups.
+        if (spatialIndex != null) {
+            updateIndexedEvents();
+        }
 
+        ((ControllerInterface<?>) getGlobalTab()).updateEvents();
+
+        for (int i = 0; i < tabs.size(); i++) {
             // Update the active & visible tabs.        
             if (((Tab) tabs.get(i)).isActive() && ((Tab) tabs.get(i)).isVisible()) {
                 ((ControllerInterface<?>) tabs.get(i)).updateEvents();
@@ -314,6 +374,77 @@ public final class ControlWindow {
         }
     }
 
+    private void updateIndexedEvents() {
+        indexedControllers.clear();
+        if (isSinglePassDispatch) {
+            for (int i = 0; i < activePointers.size(); i++) {
+                Pointer p = activePointers.get(i);
+                for (Controller<?> c : spatialIndex.query(p.getX(), p.getY())) {
+                    if (!indexedControllers.contains(c)) {
+                        indexedControllers.add(c);
+                    }
+                }
+            }
+        } else {
+            indexedControllers.addAll(spatialIndex.query(currentPointer.getX(), currentPointer.getY()));
+        }
+
+        // controllers already hovered need an update to leave, or to be dragged outside.
+        for (int i = 0; i < mouseoverList.size(); i++) {
+            ControllerInterface<?> ci = mouseoverList.get(i);
+            if (ci instanceof Controller<?> && !indexedControllers.contains(ci)
+                    && spatialIndex.isReachable((Controller<?>) ci)) {
+                indexedControllers.add((Controller<?>) ci);
+            }
+        }
+        for (int i = indexedControllers.size() - 1; i >= 0; i--) {
+            indexedControllers.get(i).updateEvents();
+        }
+    }
+
+    /**
+     * Enables a spatial index of the controllers of this window, the
+     * controllers are then only updated when a pointer is over them, or when
+     * they are already hovered. Useful with many controllers and many pointers.
+     *
+     * @return ControlWindow
+     */
+    public ControlWindow enableSpatialIndex() {
+        return enableSpatialIndex(SpatialIndex.DEFAULT_CELL_SIZE);
+    }
+
+    /**
+     * @param theCellSize size in pixels of the cells of the index.
+     * @return ControlWindow
+     */
+    public ControlWindow enableSpatialIndex(int theCellSize) {
+        int w = Math.max(applet.width, graphics.width);
+        int h = Math.max(applet.height, graphics.height);
+        spatialIndex = new SpatialIndex(this, w, h, theCellSize);
+        for (int i = 0; i < tabs.size(); i++) {
+            spatialIndex.addAll((Tab) tabs.get(i));
+        }
+        return this;
+    }
+
+    public ControlWindow disableSpatialIndex() {
+        spatialIndex = null;
+        indexedControllers.clear();
+        return this;
+    }
+
+    public boolean isSpatialIndexEnabled() {
+        return spatialIndex != null;
+    }
+
+    /**
+     * @exclude
+     * @return the spatial index, or null when it is disabled.
+     */
+    public SpatialIndex getSpatialIndex() {
+        return spatialIndex;
+    }
+
     /**
      * returns true if the mouse is inside a controller. !!! doesnt work for
      * groups yet.
@@ -336,14 +467,17 @@ public final class ControlWindow {
             mouseoverList.get(i).setPointerOver(false);
         }
         mouseoverList.clear();
+        for (int i = 0; i < pointers.getPointerCount(); i++) {
+            getHoverStack(pointers.getPointerAt(i)).clear();
+        }
     }
 
+    /**
+     * @return the controller drawn on top of the ones under the pointers, or
+     * null.
+     */
     public ControllerInterface<?> getFirstFromMouseOverList() {
-        if (getMouseOverList().isEmpty()) {
-            return null;
-        } else {
-            return getMouseOverList().get(0);
-        }
+        return mouseoverList.top();
     }
 
     /**
@@ -353,11 +487,33 @@ public final class ControlWindow {
         return mouseoverList;
     }
 
+    /**
+     * returns the controllers under a pointer, the top of the stack is the
+     * controller drawn on top.
+     *
+     * @param thePointer
+     * @return HoverStack
+     */
+    public HoverStack getHoverStack(Pointer thePointer) {
+        if (thePointer.hoverStack == null) {
+            thePointer.hoverStack = new HoverStack(this);
+        }
+        return thePointer.hoverStack;
+    }
+
+    /**
+     * checks if a controller is the one drawn on top under the current
+     * pointer.
+     */
+    public boolean isTopMouseOver(ControllerInterface<?> theController) {
+        return getHoverStack(currentPointer).top() == theController;
+    }
+
     // TODO: check if this is useful ?
     private ControlWindow handleMouseOver() {
         for (int i = mouseoverList.size() - 1; i >= 0; i--) {
             if (!mouseoverList.get(i).isPointerOver() || !isVisible) {
-                mouseoverList.remove(i);
+                removeMouseOverFor(mouseoverList.get(i));
             }
         }
         isMouseOver = mouseoverList.size() > 0;
@@ -365,18 +521,58 @@ public final class ControlWindow {
     }
 
     public ControlWindow removeMouseOverFor(ControllerInterface<?> theController) {
-        mouseoverList.remove(theController);
+        if (mouseoverList.remove(theController)) {
+            for (int i = 0; i < pointers.getPointerCount(); i++) {
+                getHoverStack(pointers.getPointerAt(i)).remove(theController);
+            }
+        }
         return this;
     }
 
     public ControlWindow setMouseOverController(ControllerInterface<?> theController) {
-        if (!mouseoverList.contains(theController) && isVisible && theController.isVisible()) {
+        return setMouseOverController(theController, currentPointer);
+    }
+
+    /**
+     * adds a controller to the hover stack of a pointer.
+     *
+     * @exclude
+     */
+    public ControlWindow setMouseOverController(ControllerInterface<?> theController, Pointer thePointer) {
+        if (isVisible && theController.isVisible()) {
             mouseoverList.add(theController);
+            getHoverStack(thePointer).add(theController);
         }
         isMouseOver = true;
         return this;
     }
 
+    /**
+     * gives the next draw order to a controller about to be drawn.
+     *
+     * @exclude
+     */
+    public void stampDrawOrder(ControllerInterface<?> theController) {
+        if (retainedRenderer != null) {
+            if (!retainedRenderer.isStamping()) {
+                return;
+            }
+            retainedRenderer.drawn(theController);
+        }
+        int order = ++drawOrder;
+        if (theController.getDrawOrder() != order) {
+            theController.setDrawOrder(order);
+            drawOrderEpoch++;
+        }
+    }
+
+    /**
+     * @exclude
+     */
+    public int getDrawOrderEpoch() {
+        return drawOrderEpoch;
+    }
+
     /**
      * updates all controllers inside the control window if update is enabled.
      *
@@ -438,6 +634,9 @@ public final class ControlWindow {
             focused = papplet().focused;
         }
 
+        // events pushed by other threads since the last frame.
+        pointerQueue.drain(pointers);
+
         return this;
     }
 
@@ -539,11 +738,13 @@ public final class ControlWindow {
             // invalid keyCode for reasons. 
             return;
         }
+        // modifiers change how the controllers react to the pointers.
+        markInputChanged();
 
         if (theKeyEvent.getAction() == KeyEvent.PRESS) {
             // allow special keys such as backspace, arrow left,
             // arrow right to pass test when active
-            if (keys[eventKeyCode] && eventKeyCode != 8 && eventKeyCode != 37 && eventKeyCode != 39) {
+            if (isKeyPressed(eventKeyCode) && eventKeyCode != 8 && eventKeyCode != 37 && eventKeyCode != 39) {
                 return;
             }
             pressEvent(theKeyEvent);
@@ -561,44 +762,51 @@ public final class ControlWindow {
     }
 
     private void pressEvent(KeyEvent theKeyEvent) {
-        keys[theKeyEvent.getKeyCode()] = true;
-        numOfActiveKeys++;
+        int code = theKeyEvent.getKeyCode();
+        if (!isKeyPressed(code)) {
+            keys[code >> 6] |= 1L << code;
+            keysHash ^= KeyMatcher.keyHash(code);
+            numOfActiveKeys++;
+        }
         key = theKeyEvent.getKey();
-        keyCode = theKeyEvent.getKeyCode();
+        keyCode = code;
     }
 
     private void releaseEvent(KeyEvent theKeyEvent) {
-        keys[theKeyEvent.getKeyCode()] = false;
-        numOfActiveKeys--;
+        int code = theKeyEvent.getKeyCode();
+        if (isKeyPressed(code)) {
+            keys[code >> 6] &= ~(1L << code);
+            keysHash ^= KeyMatcher.keyHash(code);
+            numOfActiveKeys--;
+        }
     }
 
     private void checkShortcuts(KeyEvent theKeyEvent) {
 
         if (theKeyEvent.getAction() == KeyEvent.PRESS && skatolo.areShortcutsEnabled()) {
-            int n = 0;
-            for (boolean b : keys) {
-                n += b ? 1 : 0;
-            }
-            char[] c = new char[n];
-            n = 0;
-            for (int i = 0; i < keys.length; i++) {
-                if (keys[i]) {
-                    c[n++] = ((char) i);
-                }
-            }
-            SkatoloBase.KeyCode code = new SkatoloBase.KeyCode(c);
+            skatolo.getKeyMatcher().keyPressed(keys, numOfActiveKeys, keysHash,
+                    theKeyEvent.getKeyCode(), theKeyEvent.getMillis());
+        }
 
-            if (skatolo.keymap.containsKey(code)) {
-                for (ControlKey ck : skatolo.keymap.get(code)) {
-                    ck.keyEvent();
-                }
-            }
+    }
+
+    /**
+     * @return true when the key with this key code is held down.
+     */
+    public boolean isKeyPressed(int theKeyCode) {
+        if (theKeyCode < 0 || theKeyCode >= NB_KEYS) {
+            return false;
         }
+        return (keys[theKeyCode >> 6] & (1L << theKeyCode)) != 0;
+    }
 
+    public int getNumberOfActiveKeys() {
+        return numOfActiveKeys;
     }
 
     public void clearKeys() {
-        keys = new boolean[NB_KEYS];
+        Arrays.fill(keys, 0);
+        keysHash = 0;
         numOfActiveKeys = 0;
     }
 
@@ -618,9 +826,32 @@ public final class ControlWindow {
                         papplet().pmouseY);
             }
 
+            if (isIdleSkipping && isIdle()) {
+                skippedEventPasses++;
+                // no dispatch: the removed pointers are kept out of the pool.
+                for (int i = 0; i < pointers.getPointerCount(); i++) {
+                    pointers.getPointerAt(i).endFrame();
+                }
+                return;
+            }
+            processedEventPasses++;
+
+            if (coalescing != Pointer.Coalescing.LATEST) {
+                for (int i = 0; i < pointers.getPointerCount(); i++) {
+                    pointers.getPointerAt(i).accumulate();
+                }
+            }
+
+            if (isSinglePassDispatch) {
+                updateSinglePassEvents();
+                endPointerFrame();
+                return;
+            }
+
             int nbPointers = 0;
 
-            for (Pointer p : pointers.values()) {
+            for (int i = 0; i < pointers.getPointerCount(); i++) {
+                Pointer p = pointers.getPointerAt(i);
                 if (!p.isEnabled()) {
                     continue;
                 }
@@ -646,7 +877,11 @@ public final class ControlWindow {
                 }
 
                 //***//
-                updateEvents();
+                if (coalescing == Pointer.Coalescing.REPLAY) {
+                    replayEvents(p);
+                } else {
+                    updateEvents();
+                }
                 //***//
 
                 // FIXME: I really think it is useless.
@@ -663,6 +898,451 @@ public final class ControlWindow {
                 resetMouseOver();
             }
 
+            endPointerFrame();
+        }
+    }
+
+    /**
+     * a frame is idle when no pointer moved, was pressed, released, added or
+     * removed, when the input epoch did not change and when no controller
+     * requested an event pass.
+     */
+    private boolean isIdle() {
+        boolean isIdle = !isEventPassRequested
+                && inputEpoch == lastInputEpoch
+                && pointers.getChangeCount() == lastPointerChanges;
+        for (int i = 0; isIdle && i < pointers.getPointerCount(); i++) {
+            Pointer p = pointers.getPointerAt(i);
+            if (p.isEnabled() && (p.getX() != p.getPX() || p.getY() != p.getPY()
+                    || p.isPressed() || p.isReleased())) {
+                isIdle = false;
+            }
+        }
+        // requests made during this pass are for the next frame.
+        isEventPassRequested = false;
+        lastInputEpoch = inputEpoch;
+        lastPointerChanges = pointers.getChangeCount();
+        return isIdle;
+    }
+
+    /**
+     * Skips the event pass of the frames where nothing changed: no pointer
+     * input, no key, no layout change and no active behavior.
+     *
+     * @return ControlWindow
+     */
+    public ControlWindow enableIdleSkipping() {
+        isIdleSkipping = true;
+        isEventPassRequested = true;
+        return this;
+    }
+
+    public ControlWindow disableIdleSkipping() {
+        isIdleSkipping = false;
+        return this;
+    }
+
+    public boolean isIdleSkipping() {
+        return isIdleSkipping;
+    }
+
+    /**
+     * increments the input epoch, the next frame runs an event pass.
+     *
+     * @exclude
+     */
+    public void markInputChanged() {
+        inputEpoch++;
+    }
+
+    public int getInputEpoch() {
+        return inputEpoch;
+    }
+
+    /**
+     * increments the layout epoch: a controller moved, was resized, shown,
+     * hidden, added or removed. It is also an input change.
+     *
+     * @exclude
+     */
+    public void markLayoutChanged() {
+        layoutEpoch++;
+        inputEpoch++;
+    }
+
+    public int getLayoutEpoch() {
+        return layoutEpoch;
+    }
+
+    /**
+     * Hit tests the controllers with an offscreen ID buffer instead of their
+     * rectangles: the shapes are exact (round knobs) and the controller drawn
+     * on top wins. The buffer is drawn again only when the layout changes.
+     *
+     * @return ControlWindow
+     */
+    public ControlWindow enablePicking() {
+        if (pickingBuffer == null) {
+            int w = papplet().width;
+            int h = papplet().height;
+            if (graphics != null) {
+                w = Math.max(w, graphics.width);
+                h = Math.max(h, graphics.height);
+            }
+            pickingBuffer = new PickingBuffer(this, w, h);
+        }
+        markLayoutChanged();
+        return this;
+    }
+
+    public ControlWindow disablePicking() {
+        pickingBuffer = null;
+        return this;
+    }
+
+    public boolean isPicking() {
+        return pickingBuffer != null;
+    }
+
+    /**
+     * @return the picking buffer, or null when picking is disabled.
+     */
+    public PickingBuffer getPickingBuffer() {
+        return pickingBuffer;
+    }
+
+    /**
+     * Keeps the drawn tabs in offscreen layers, composited every frame. Only
+     * the regions of the controllers that changed are drawn again, for
+     * windows where most controllers stay still.
+     *
+     * @see RetainedRenderer
+     * @return ControlWindow
+     */
+    public ControlWindow enableRetainedMode() {
+        if (retainedRenderer == null) {
+            int w = papplet().width;
+            int h = papplet().height;
+            if (graphics != null) {
+                w = Math.max(w, graphics.width);
+                h = Math.max(h, graphics.height);
+            }
+            retainedRenderer = new RetainedRenderer(this, w, h);
+        }
+        return this;
+    }
+
+    public ControlWindow disableRetainedMode() {
+        retainedRenderer = null;
+        return this;
+    }
+
+    public boolean isRetainedMode() {
+        return retainedRenderer != null;
+    }
+
+    /**
+     * @return the retained renderer, or null when the retained mode is
+     * disabled.
+     */
+    public RetainedRenderer getRetainedRenderer() {
+        return retainedRenderer;
+    }
+
+    /**
+     * Renders the window once per frame into a layer, drawn into the window
+     * graphics and into any number of outputs with their own transforms.
+     * Drawing into several graphics with draw(PGraphics) then costs one image
+     * per graphics.
+     *
+     * @see CompositeOutput
+     * @return ControlWindow
+     */
+    public ControlWindow enableCompositeOutput() {
+        if (compositeOutput == null) {
+            int w = papplet().width;
+            int h = papplet().height;
+            if (graphics != null) {
+                w = Math.max(w, graphics.width);
+                h = Math.max(h, graphics.height);
+            }
+            compositeOutput = new CompositeOutput(this, w, h);
+        }
+        return this;
+    }
+
+    public ControlWindow disableCompositeOutput() {
+        compositeOutput = null;
+        return this;
+    }
+
+    public boolean isCompositeOutput() {
+        return compositeOutput != null;
+    }
+
+    /**
+     * @return the composite output, or null when it is disabled.
+     */
+    public CompositeOutput getCompositeOutput() {
+        return compositeOutput;
+    }
+
+    /**
+     * Skips drawing the controllers outside the graphics, or outside the clip
+     * area of their group. For large scrolling panels drawn in window
+     * coordinates, not through a transform.
+     *
+     * @see Viewport
+     * @return ControlWindow
+     */
+    public ControlWindow enableCulling() {
+        if (viewport == null) {
+            viewport = new Viewport();
+        }
+        return this;
+    }
+
+    public ControlWindow disableCulling() {
+        viewport = null;
+        return this;
+    }
+
+    public boolean isCulling() {
+        return viewport != null;
+    }
+
+    /**
+     * @return the viewport culling the controllers, or null when the culling
+     * is disabled.
+     */
+    public Viewport getViewport() {
+        return viewport;
+    }
+
+    /**
+     * @return the draw context of a graphics, used by the controllers with a
+     * ContextView. The window keeps one context, moved to the graphics drawn
+     * into, e.g. the layers of the retained mode and the view cache images.
+     * @see DrawContext
+     */
+    public DrawContext getDrawContext(PGraphics theGraphics) {
+        if (drawContext == null) {
+            drawContext = new DrawContext(theGraphics);
+        } else if (drawContext.getTarget() != theGraphics) {
+            drawContext.setTarget(theGraphics);
+        }
+        return drawContext;
+    }
+
+    void countViewCache(boolean isHit) {
+        if (isHit) {
+            viewCacheHits++;
+        } else {
+            viewCacheMisses++;
+        }
+    }
+
+    /**
+     * @return how many times a cached controller view was drawn from its
+     * cache.
+     * @see Controller#enableViewCache()
+     */
+    public long getViewCacheHits() {
+        return viewCacheHits;
+    }
+
+    /**
+     * @return how many times a cached controller view had to be displayed
+     * again.
+     */
+    public long getViewCacheMisses() {
+        return viewCacheMisses;
+    }
+
+    /**
+     * @return hits / (hits + misses) of the controller view caches, 0 before
+     * the first draw.
+     */
+    public float getViewCacheHitRatio() {
+        long total = viewCacheHits + viewCacheMisses;
+        return total == 0 ? 0 : (float) viewCacheHits / total;
+    }
+
+    public void resetViewCacheStats() {
+        viewCacheHits = 0;
+        viewCacheMisses = 0;
+    }
+
+    /**
+     * marks a controller to be drawn again in retained mode, a group is drawn
+     * again with all the layers.
+     *
+     * @exclude
+     */
+    public void damage(ControllerInterface<?> theController) {
+        if (retainedRenderer != null) {
+            if (theController instanceof Controller<?>) {
+                retainedRenderer.damage((Controller<?>) theController);
+            } else {
+                retainedRenderer.damageAll();
+            }
+        }
+    }
+
+    /**
+     * asks for an event pass in the next frame, e.g. for an active behavior.
+     *
+     * @exclude
+     */
+    public void requestEventPass() {
+        isEventPassRequested = true;
+    }
+
+    public long getProcessedEventPasses() {
+        return processedEventPasses;
+    }
+
+    public long getSkippedEventPasses() {
+        return skippedEventPasses;
+    }
+
+    private void endPointerFrame() {
+        for (int i = 0; i < pointers.getPointerCount(); i++) {
+            pointers.getPointerAt(i).endFrame();
+        }
+        // the controllers have seen the removed pointers, they can be reused.
+        pointers.recycle();
+    }
+
+    /**
+     * dispatches each sample received during the frame, so that onDrag sees
+     * every step of the motion.
+     */
+    private void replayEvents(Pointer p) {
+        if (!p.isHistoryEnabled()) {
+            p.enableHistory(DEFAULT_HISTORY);
+        }
+        int n = p.getFrameSampleCount();
+        if (n < 2) {
+            updateEvents();
+            return;
+        }
+        // the behaviors advance once per frame, not once per sample.
+        continuousUpdateEvents();
+        int x = p.getX();
+        int y = p.getY();
+        int px = p.getPX();
+        int py = p.getPY();
+        int prevX = px;
+        int prevY = py;
+        for (int i = p.getSampleCount() - n; i < p.getSampleCount(); i++) {
+            int sampleX = p.getSampleX(i);
+            int sampleY = p.getSampleY(i);
+            p.setPositions(sampleX, sampleY, prevX, prevY);
+            updateControllerEvents();
+            prevX = sampleX;
+            prevY = sampleY;
+        }
+        p.setPositions(x, y, px, py);
+    }
+
+    /**
+     * Sets how the positions received between two frames are dispatched, see
+     * {@link Pointer.Coalescing}. REPLAY enables the history of the pointers,
+     * and works as ACCUMULATE in single pass dispatch.
+     *
+     * @param theCoalescing
+     * @return ControlWindow
+     */
+    public ControlWindow setPointerCoalescing(Pointer.Coalescing theCoalescing) {
+        coalescing = theCoalescing;
+        return this;
+    }
+
+    public Pointer.Coalescing getPointerCoalescing() {
+        return coalescing;
+    }
+
+    private void updateSinglePassEvents() {
+        activePointers.clear();
+        for (int i = 0; i < pointers.getPointerCount(); i++) {
+            Pointer p = pointers.getPointerAt(i);
+            if (!p.isEnabled()) {
+                continue;
+            }
+            activePointers.add(p);
+
+            if (!p.isTouch() && !p.isHover()) {
+                currentPointer = p;
+                if (p.isPressed()) {
+                    p.eventSent();
+                    mousePressedEvent();
+                }
+                if (p.isReleased()) {
+                    p.eventSent();
+                    mouseReleasedEvent();
+                }
+            }
+        }
+
+        if (activePointers.isEmpty()) {
+            resetMouseOver();
+            return;
+        }
+
+        // each node tests all the active pointers.
+        currentPointer = mousePointer;
+        updateEvents();
+        handleMouseWheelMoved();
+    }
+
+    /**
+     * In single pass dispatch the controllers are visited once per frame and
+     * test every active pointer, each pointer has its own hover, press and
+     * drag state on a controller. By default the controllers are visited once
+     * per pointer and follow one pointer at a time.
+     *
+     * @return ControlWindow
+     */
+    public ControlWindow enableSinglePassDispatch() {
+        resetMouseOver();
+        isSinglePassDispatch = true;
+        return this;
+    }
+
+    public ControlWindow disableSinglePassDispatch() {
+        resetMouseOver();
+        isSinglePassDispatch = false;
+        activePointers.clear();
+        return this;
+    }
+
+    public boolean isSinglePassDispatch() {
+        return isSinglePassDispatch;
+    }
+
+    /**
+     * @exclude
+     * @return the pointers dispatched in the current frame, in single pass
+     * dispatch.
+     */
+    public List<Pointer> getActivePointers() {
+        return activePointers;
+    }
+
+    /**
+     * @exclude
+     */
+    public void setCurrentPointer(Pointer thePointer) {
+        currentPointer = thePointer;
+    }
+
+    private void drawTab(Tab theTab) {
+        stampDrawOrder(theTab);
+        if (retainedRenderer != null) {
+            retainedRenderer.draw(theTab, graphics);
+        } else {
+            theTab.draw(graphics);
         }
     }
 
@@ -670,11 +1350,92 @@ public final class ControlWindow {
      * @exclude draw content.
      */
     public void draw() {
+        update(applet.frameCount);
+        if (compositeOutput != null) {
+            compositeOutput.present(graphics);
+            compositeOutput.presentAll();
+        } else {
+            render(graphics);
+        }
+    }
+
+    /**
+     * the update phase of a frame: the pointer events, then
+     * updateInternalEvents() of the controllers of the visible tabs. The
+     * update runs once per frame, calling it again for the same frame does
+     * nothing, so that update() can be called from the sketch, e.g. in pre(),
+     * before the window is drawn.
+     *
+     * @param theFrame the frame being updated, usually frameCount
+     * @see #render(PGraphics)
+     */
+    public ControlWindow update(int theFrame) {
+        if (theFrame == updatedFrame) {
+            return this;
+        }
+        updatedFrame = theFrame;
+        long start = System.nanoTime();
 
         frameCount = applet.frameCount;
 
         updatePointerEvents();
 
+        for (int i = 0; i < backgroundUpdates.size(); i++) {
+            backgroundUpdates.get(i).backgroundUpdate();
+        }
+
+        if (isVisible) {
+            for (int i = 1; i < tabs.size(); i++) {
+                Tab tab = (Tab) tabs.get(i);
+                if (tab.isVisible() && tab.isActive()) {
+                    tab.update(theFrame);
+                }
+            }
+            if (tabs.size() > 0) {
+                getGlobalTab().update(theFrame);
+            }
+        }
+        updateTime = System.nanoTime() - start;
+        return this;
+    }
+
+    /**
+     * the controller is updated in each update phase, even when it is hidden,
+     * in a closed group or in a background tab, or when the window is hidden.
+     *
+     * @exclude
+     * @see Controller#backgroundUpdate()
+     */
+    public void addBackgroundUpdate(Controller<?> theController) {
+        if (!backgroundUpdates.contains(theController)) {
+            backgroundUpdates.add(theController);
+        }
+    }
+
+    /**
+     * @exclude
+     */
+    public void removeBackgroundUpdate(Controller<?> theController) {
+        backgroundUpdates.remove(theController);
+    }
+
+    /**
+     * @return the duration of the last update phase in nanoseconds.
+     */
+    public long getUpdateTime() {
+        return updateTime;
+    }
+
+    /**
+     * the render phase of a frame: draws the window into a graphics without
+     * updating the controllers. Can be called several times per frame to
+     * draw the same state into several surfaces.
+     *
+     * @see #update(int)
+     */
+    public void render(PGraphics graphics) {
+        this.graphics = graphics;
+
         if (isVisible) {
 
             // TODO save stroke, noStroke, fill, noFill, strokeWeight
@@ -706,6 +1467,13 @@ public final class ControlWindow {
             int myOffsetX = (int) getPositionOfTabs().x;
             int myOffsetY = (int) getPositionOfTabs().y;
             int myHeight = 0;
+            drawOrder = 0;
+            if (viewport != null) {
+                viewport.begin(graphics);
+            }
+            if (retainedRenderer != null) {
+                retainedRenderer.beginFrame();
+            }
             if (tabs.size() > 0) {
                 for (int i = 1; i < tabs.size(); i++) {
                     if (((Tab) tabs.get(i)).isVisible()) {
@@ -722,7 +1490,7 @@ public final class ControlWindow {
                         ((Tab) tabs.get(i)).setOffset(myOffsetX, myOffsetY);
 
                         if (((Tab) tabs.get(i)).isActive()) {
-                            ((Tab) tabs.get(i)).draw(graphics);
+                            drawTab((Tab) tabs.get(i));
                         }
 
                         if (((Tab) tabs.get(i)).updateLabel()) {
@@ -731,7 +1499,10 @@ public final class ControlWindow {
                         myOffsetX += ((Tab) tabs.get(i)).width();
                     }
                 }
-                ((ControllerInterface<?>) getGlobalTab()).draw(graphics);
+                drawTab(getGlobalTab());
+            }
+            if (retainedRenderer != null) {
+                retainedRenderer.endFrame();
             }
             for (int i = 0; i < canvasList.size(); i++) {
                 if ((canvasList.get(i)).mode() == Canvas.POST) {
@@ -761,6 +1532,10 @@ public final class ControlWindow {
         return this.graphics;
     }
 
+    void setGraphics(PGraphics graphics) {
+        this.graphics = graphics;
+    }
+
     /**
      * Adds a custom context to a ControlWindow. Use a custom class which
      * implements the CDrawable interface
@@ -801,6 +1576,7 @@ public final class ControlWindow {
     public void setMouseWheelRotation(int theRotation) {
         if (isMouseOver()) {
             mouseWheelMoved = theRotation;
+            markInputChanged();
         }
     }
 
@@ -809,30 +1585,28 @@ public final class ControlWindow {
     @SuppressWarnings("unchecked")
     private void handleMouseWheelMoved() {
         if (mouseWheelMoved != 0) {
-            CopyOnWriteArrayList<ControllerInterface<?>> mouselist = new CopyOnWriteArrayList<ControllerInterface<?>>(mouseoverList);
-            for (ControllerInterface<?> c : mouselist) {
-                if (c.isVisible()) {
-                    if (c instanceof Controller) {
-                        ((Controller) c).onScroll(mouseWheelMoved);
-                    }
-                    if (c instanceof ControllerGroup) {
-                        ((ControllerGroup) c).onScroll(mouseWheelMoved);
-                    }
-                    if (c instanceof Slider) {
-                        ((Slider) c).scrolled(mouseWheelMoved);
-                    } else if (c instanceof Knob) {
-                        ((Knob) c).scrolled(mouseWheelMoved);
-                    } else if (c instanceof Numberbox) {
-                        ((Numberbox) c).scrolled(mouseWheelMoved);
-                    } else if (c instanceof ListBox) {
-                        ((ListBox) c).scrolled(mouseWheelMoved);
-                    } else if (c instanceof DropdownList) {
-                        ((DropdownList) c).scrolled(mouseWheelMoved);
-
-                    } else if (c instanceof Textarea) {
-                        ((Textarea) c).scrolled(mouseWheelMoved);
-                    }
-                    break;
+            // the wheel goes to the controller drawn on top under the mouse.
+            ControllerInterface<?> c = getHoverStack(mousePointer).topVisible();
+            if (c != null) {
+                if (c instanceof Controller) {
+                    ((Controller) c).onScroll(mouseWheelMoved);
+                }
+                if (c instanceof ControllerGroup) {
+                    ((ControllerGroup) c).onScroll(mouseWheelMoved);
+                }
+                if (c instanceof Slider) {
+                    ((Slider) c).scrolled(mouseWheelMoved);
+                } else if (c instanceof Knob) {
+                    ((Knob) c).scrolled(mouseWheelMoved);
+                } else if (c instanceof Numberbox) {
+                    ((Numberbox) c).scrolled(mouseWheelMoved);
+                } else if (c instanceof ListBox) {
+                    ((ListBox) c).scrolled(mouseWheelMoved);
+                } else if (c instanceof DropdownList) {
+                    ((DropdownList) c).scrolled(mouseWheelMoved);
+
+                } else if (c instanceof Textarea) {
+                    ((Textarea) c).scrolled(mouseWheelMoved);
                 }
             }
         }
@@ -1032,6 +1806,16 @@ public final class ControlWindow {
         return this;
     }
 
+    /**
+     * returns the queue to push pointer events from other threads, they are
+     * applied once per frame before drawing.
+     *
+     * @return PointerEventQueue
+     */
+    public PointerEventQueue getPointerQueue() {
+        return pointerQueue;
+    }
+
     public PointerList getPointers() {
         return pointers;
     }
@@ -36,14 +36,18 @@ import tech.lity.rea.skatolo.SkatoloConstants;
 import tech.lity.rea.skatolo.events.ControllerPlug;
 import tech.lity.rea.skatolo.file.ControllerProperty;
 import tech.lity.rea.skatolo.gui.controllers.ControllerView;
+import tech.lity.rea.skatolo.gui.controllers.ContextView;
 import tech.lity.rea.skatolo.gui.controllers.Numberbox;
 import tech.lity.rea.skatolo.gui.group.ControllerGroup;
 import tech.lity.rea.skatolo.gui.controllers.Textfield;
 import tech.lity.rea.skatolo.gui.group.Tab;
 import tech.lity.rea.skatolo.gui.group.ControlGroup;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 import processing.core.PApplet;
 import processing.core.PGraphics;
@@ -164,6 +168,8 @@ public abstract class Controller<T> implements ControllerInterface<T>, CDrawable
 
     protected int _myDisplayMode = DEFAULT;
     protected int _myPickingColor = 0xffffff00;
+    protected int drawOrder = 0;
+    protected ViewCache viewCache = null;
 
     protected String _myAddress = "";
 
@@ -177,6 +183,18 @@ public abstract class Controller<T> implements ControllerInterface<T>, CDrawable
     protected boolean isPointerOver;
     protected boolean dragged;
 
+    private final Bounds absoluteBounds = new Bounds();
+
+    // Input state of each pointer, used by the single pass dispatch.
+    private Map<Pointer, PointerState> pointerStates;
+
+    private static class PointerState {
+
+        boolean isPointerOver;
+        boolean isMousePressed;
+        boolean dragged;
+    }
+
     private T me;
 
     /**
@@ -215,6 +233,7 @@ public abstract class Controller<T> implements ControllerInterface<T>, CDrawable
         }
         width = theWidth;
         height = theHeight;
+        updateAbsolutePosition();
 
         _myCaptionLabel = new Label(skatolo, theName);
         _myCaptionLabel.setColor(color.getCaptionLabel());
@@ -333,6 +352,9 @@ public abstract class Controller<T> implements ControllerInterface<T>, CDrawable
         isBehavior = true;
         _myBehavior = theBehavior;
         _myBehavior.init(this);
+        if (controlWindow != null) {
+            controlWindow.requestEventPass();
+        }
         return me;
     }
 
@@ -463,6 +485,7 @@ public abstract class Controller<T> implements ControllerInterface<T>, CDrawable
         positionBuffer.x = thePVector.x;
         positionBuffer.y = thePVector.y;
         positionBuffer.z = thePVector.z;
+        updateAbsolutePosition();
         return me;
     }
 
@@ -480,6 +503,7 @@ public abstract class Controller<T> implements ControllerInterface<T>, CDrawable
         position.y = theY;
         positionBuffer.x = position.x;
         positionBuffer.y = position.y;
+        updateAbsolutePosition();
         return me;
     }
 
@@ -504,16 +528,54 @@ public abstract class Controller<T> implements ControllerInterface<T>, CDrawable
         absolutePosition.x = thePVector.x;
         absolutePosition.y = thePVector.y;
         absolutePosition.z = thePVector.z;
+        absoluteBounds.set(absolutePosition.x, absolutePosition.y, width, height);
         return me;
     }
 
     /**
      * {@inheritDoc}
+     *
+     * Keeps the spatial index of the control window up to date, call it after
+     * changing position, width or height directly.
      */
     public T updateAbsolutePosition() {
+        if (controlWindow != null) {
+            controlWindow.markLayoutChanged();
+        }
+        if (_myParent != null) {
+            Bounds parent = _myParent.getAbsoluteBounds();
+            absolutePosition.set(position.x + parent.getX(), position.y + parent.getY(), position.z);
+            absoluteBounds.set(absolutePosition.x, absolutePosition.y, width, height);
+        } else {
+            absoluteBounds.set(position.x, position.y, width, height);
+        }
+        if (controlWindow != null && controlWindow.isSpatialIndexEnabled()) {
+            controlWindow.getSpatialIndex().update(this);
+        }
         return me;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    public Bounds getAbsoluteBounds() {
+        // the location is stored by updateAbsolutePosition(), which the
+        // groups call on their children when they move. The size is read
+        // each time, as subclasses change it directly.
+        return absoluteBounds.set(absoluteBounds.getX(), absoluteBounds.getY(), width, height);
+    }
+
+    /**
+     * returns false when the area tested by computeIsInside() does not follow
+     * the position, width and height of the controller. Such controllers are
+     * checked for every pointer by the spatial index.
+     *
+     * @exclude
+     */
+    protected boolean hasIndexableBounds() {
+        return true;
+    }
+
     /**
      * continuousUpdateEvents is used for internal updates of a controller. this
      * method is final and can't be overridden.
@@ -525,6 +587,9 @@ public abstract class Controller<T> implements ControllerInterface<T>, CDrawable
             if (_myBehavior.isActive() && !isMousePressed) {
                 _myBehavior.update();
             }
+            if (_myBehavior.isActive()) {
+                controlWindow.requestEventPass();
+            }
         }
     }
 
@@ -538,21 +603,152 @@ public abstract class Controller<T> implements ControllerInterface<T>, CDrawable
             return me;
         }
 
-        
-        //
-        // !computeIsInside();
-        
+        if (controlWindow.isSinglePassDispatch()) {
+            updateEventsForAllPointers();
+            return me;
+        }
+        handlePointerEvents();
+        return me;
+    }
+
+    /**
+     * single pass dispatch: runs the events of each active pointer with its
+     * own hover, press and drag state, then merges these states so that
+     * isPointerOver() and isMousePressed() keep working.
+     */
+    private void updateEventsForAllPointers() {
+        Pointer current = controlWindow.getCurrentPointer();
+        List<Pointer> active = controlWindow.getActivePointers();
+        for (int i = 0; i < active.size(); i++) {
+            Pointer p = active.get(i);
+            controlWindow.setCurrentPointer(p);
+            loadPointerState(p);
+            handlePointerEvents();
+            storePointerState(p);
+        }
+
+        // Pointers removed since the last frame.
+        if (pointerStates != null) {
+            Iterator<Pointer> it = pointerStates.keySet().iterator();
+            while (it.hasNext()) {
+                Pointer p = it.next();
+                if (!active.contains(p)) {
+                    controlWindow.setCurrentPointer(p);
+                    loadPointerState(p);
+                    onLeave();
+                    setPointerOver(false);
+                    it.remove();
+                }
+            }
+        }
+        controlWindow.setCurrentPointer(current);
+        mergePointerStates();
+    }
+
+    private void loadPointerState(Pointer p) {
+        PointerState state = (pointerStates == null) ? null : pointerStates.get(p);
+        if (state == null) {
+            isPointerOver = false;
+            isMousePressed = false;
+            dragged = false;
+            currentPointer = Pointer.invalidPointer;
+        } else {
+            isPointerOver = state.isPointerOver;
+            isMousePressed = state.isMousePressed;
+            dragged = state.dragged;
+            currentPointer = p;
+        }
+    }
+
+    private void storePointerState(Pointer p) {
+        if (!isPointerOver && !isMousePressed && !dragged) {
+            if (pointerStates != null) {
+                pointerStates.remove(p);
+            }
+            return;
+        }
+        if (pointerStates == null) {
+            pointerStates = new IdentityHashMap<Pointer, PointerState>();
+        }
+        PointerState state = pointerStates.get(p);
+        if (state == null) {
+            state = new PointerState();
+            pointerStates.put(p, state);
+        }
+        state.isPointerOver = isPointerOver;
+        state.isMousePressed = isMousePressed;
+        state.dragged = dragged;
+    }
+
+    /**
+     * the state of all the pointers. The current pointer is the first pointer
+     * pressing the controller, else the first one over it, in the order of
+     * the active pointers.
+     */
+    private void mergePointerStates() {
+        isPointerOver = false;
+        isMousePressed = false;
+        dragged = false;
+        currentPointer = Pointer.invalidPointer;
+        if (pointerStates == null) {
+            return;
+        }
+        Pointer over = Pointer.invalidPointer;
+        List<Pointer> active = controlWindow.getActivePointers();
+        for (int i = 0; i < active.size(); i++) {
+            PointerState state = pointerStates.get(active.get(i));
+            if (state == null) {
+                continue;
+            }
+            if (state.isMousePressed && currentPointer == Pointer.invalidPointer) {
+                currentPointer = active.get(i);
+            }
+            if (state.isPointerOver && over == Pointer.invalidPointer) {
+                over = active.get(i);
+            }
+            isPointerOver |= state.isPointerOver;
+            isMousePressed |= state.isMousePressed;
+            dragged |= state.dragged;
+            // a leaving pointer removed it from the stacks of the others.
+            if (state.isPointerOver) {
+                controlWindow.setMouseOverController(this, active.get(i));
+            }
+        }
+        if (currentPointer == Pointer.invalidPointer) {
+            currentPointer = over;
+        }
+    }
+
+    /**
+     * returns the number of pointers currently over the controller. Only
+     * counted in single pass dispatch.
+     *
+     * @return int
+     */
+    public int getPointerOverCount() {
+        int count = 0;
+        if (pointerStates != null) {
+            for (PointerState state : pointerStates.values()) {
+                if (state.isPointerOver) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private void handlePointerEvents() {
         // responds only to one pointer. 
         // Is the correct pointer, or no active pointer is set. 
         if (currentPointer == controlWindow.getCurrentPointer() || currentPointer == Pointer.invalidPointer) {
 
             if (isMovingController()) {
                 moveToPointer();
-                return me;
+                return;
             }
 
             if (isLock) {
-                return me;
+                return;
             }
 
             boolean goingOut = !computeIsInside();
@@ -584,11 +780,11 @@ public abstract class Controller<T> implements ControllerInterface<T>, CDrawable
 
         
         // Current Pointer has died
-        if (currentPointer != controlWindow.getMousePointer() && 
-                !controlWindow.getPointers().containsValue(currentPointer)) {
+        if (!controlWindow.isSinglePassDispatch() && currentPointer != controlWindow.getMousePointer() && 
+                !controlWindow.getPointers().containsPointer(currentPointer)) {
             onLeave();
             setPointerOver(false);
-            return me;
+            return;
         }
         
 //        boolean anySelect = false;
@@ -601,7 +797,6 @@ public abstract class Controller<T> implements ControllerInterface<T>, CDrawable
 //            System.out.println("No selection ");
 //            return me;
 //        }
-        return me;
     }
 
     private boolean moved() {
@@ -617,6 +812,7 @@ public abstract class Controller<T> implements ControllerInterface<T>, CDrawable
         } else {
             position.set(positionBuffer);
         }
+        updateAbsolutePosition();
     }
 
     private boolean isMovingController() {
@@ -633,7 +829,7 @@ public abstract class Controller<T> implements ControllerInterface<T>, CDrawable
                 onDrag();
                 dragged = true;
             } else {
-                if (this.equals(controlWindow.getFirstFromMouseOverList())) {
+                if (controlWindow.isTopMouseOver(this)) {
                     onMove();
                 }
             }
@@ -649,7 +845,18 @@ public abstract class Controller<T> implements ControllerInterface<T>, CDrawable
         if (!isVisible && !isUserInteraction) {
             return false;
         }
+        if (controlWindow.isSinglePassDispatch()) {
+            Pointer p = controlWindow.getCurrentPointer();
+            loadPointerState(p);
+            boolean isPressed = updateMousePressed(theStatus);
+            storePointerState(p);
+            mergePointerStates();
+            return isPressed;
+        }
+        return updateMousePressed(theStatus);
+    }
 
+    private boolean updateMousePressed(final boolean theStatus) {
         if (theStatus == true) {
             if (isPointerOver()) {
                 setMousePressed();
@@ -664,6 +871,7 @@ public abstract class Controller<T> implements ControllerInterface<T>, CDrawable
 
     private void setMousePressed() {
         isMousePressed = true;
+        invalidate();
         if (!skatolo.isAltDown()) {
             mousePressed();
             onPress();
@@ -675,6 +883,7 @@ public abstract class Controller<T> implements ControllerInterface<T>, CDrawable
 
         if (isMousePressed) {
             isMousePressed = false;
+            invalidate();
             if (computeIsInside()) {
                 if (!skatolo.isAltDown()) {
                     if (!dragged) {
@@ -745,6 +954,10 @@ public abstract class Controller<T> implements ControllerInterface<T>, CDrawable
      * @return boolean
      */
     public boolean isPointerOver() {
+        if (controlWindow.isSinglePassDispatch()) {
+            // the state of the pointer dispatched, or of any pointer.
+            return isPointerOver;
+        }
         return isPointerOver && controlWindow.getCurrentPointer() == this.currentPointer;
     }
 
@@ -753,6 +966,7 @@ public abstract class Controller<T> implements ControllerInterface<T>, CDrawable
             return me;
         }
         isPointerOver = theFlag;
+        invalidate();
 
         if (isPointerOver) {
             controlWindow.setMouseOverController(this);
@@ -775,6 +989,46 @@ public abstract class Controller<T> implements ControllerInterface<T>, CDrawable
         return me;
     }
 
+    /**
+     * @see ControllerInterface#update(int)
+     */
+    public T update(int theFrame) {
+        if (controlWindow.isSinglePassDispatch() && pointerStates != null && !pointerStates.isEmpty()) {
+            updateInternalEventsForAllPointers();
+            return me;
+        }
+        return updateInternalEvents(skatolo.getPApplet());
+    }
+
+    /**
+     * single pass dispatch: the internal update runs once for each pointer
+     * over or pressing the controller, with this pointer as the current
+     * pointer of the window and its own state.
+     */
+    private void updateInternalEventsForAllPointers() {
+        Pointer current = controlWindow.getCurrentPointer();
+        List<Pointer> active = controlWindow.getActivePointers();
+        for (int i = 0; i < active.size(); i++) {
+            Pointer p = active.get(i);
+            if (!pointerStates.containsKey(p)) {
+                continue;
+            }
+            controlWindow.setCurrentPointer(p);
+            loadPointerState(p);
+            updateInternalEvents(skatolo.getPApplet());
+            storePointerState(p);
+        }
+        controlWindow.setCurrentPointer(current);
+        mergePointerStates();
+    }
+
+    /**
+     * @see ControllerInterface#render(PGraphics)
+     */
+    public void render(PGraphics graphics) {
+        draw(graphics);
+    }
+
     /**
      * the default draw function for each controller extending superclass
      * Controller. This draw function will take care of default matrix
@@ -787,11 +1041,20 @@ public abstract class Controller<T> implements ControllerInterface<T>, CDrawable
      */
     public void draw(final PGraphics graphics) {
 
+        if (viewCache == null && _myControllerView instanceof ContextView<?>) {
+            DrawContext context = controlWindow.getDrawContext(graphics);
+            context.translate(position.x, position.y);
+            ((ContextView<T>) _myControllerView).display(context, me);
+            context.translate(-position.x, -position.y);
+            context.flush();
+            return;
+        }
+
         graphics.pushMatrix();
 
         graphics.translate(position.x, position.y);
 
-        _myControllerView.display(graphics, me);
+        displayView(graphics);
 
         graphics.popMatrix();
 
@@ -823,6 +1086,9 @@ public abstract class Controller<T> implements ControllerInterface<T>, CDrawable
      */
     public void remove() {
         controlWindow.removeMouseOverFor(this);
+        if (controlWindow.isSpatialIndexEnabled()) {
+            controlWindow.getSpatialIndex().remove(this);
+        }
         if (_myParent != null) {
             _myParent.remove(this);
         }
@@ -1067,9 +1333,13 @@ public abstract class Controller<T> implements ControllerInterface<T>, CDrawable
             _myParent = theParent;
             _myParent.add(this);
             absolutePosition.add(_myParent.getPosition());
+            if (controlWindow != null && controlWindow != _myParent.getWindow() && controlWindow.isSpatialIndexEnabled()) {
+                controlWindow.getSpatialIndex().remove(this);
+            }
             controlWindow = _myParent.getWindow();
         }
         setPointerOver(false);
+        updateAbsolutePosition();
         return me;
     }
 
@@ -1099,8 +1369,10 @@ public abstract class Controller<T> implements ControllerInterface<T>, CDrawable
      * @return boolean
      */
     protected boolean computeIsInside() {
-        return (controlWindow.getPointerX() > position.x + _myParent.getAbsolutePosition().x && controlWindow.getPointerX() < position.x + _myParent.getAbsolutePosition().x + width
-                && controlWindow.getPointerY() > position.y + _myParent.getAbsolutePosition().y && controlWindow.getPointerY() < position.y + _myParent.getAbsolutePosition().y + height);
+        if (controlWindow.isPicking()) {
+            return controlWindow.getPickingBuffer().pick(controlWindow.getPointerX(), controlWindow.getPointerY()) == this;
+        }
+        return getAbsoluteBounds().contains(controlWindow.getPointerX(), controlWindow.getPointerY());
     }
     /**
      * checks if the mouse is within the area of a controller.
@@ -1109,8 +1381,10 @@ public abstract class Controller<T> implements ControllerInterface<T>, CDrawable
      * @return boolean
      */
     protected boolean computeIsPointerInside(Pointer p) {
-        return (p.getX() > position.x + _myParent.getAbsolutePosition().x && p.getX() < position.x + _myParent.getAbsolutePosition().x + width
-                && p.getY() > position.y + _myParent.getAbsolutePosition().y && p.getY() < position.y + _myParent.getAbsolutePosition().y + height);
+        if (controlWindow.isPicking()) {
+            return controlWindow.getPickingBuffer().pick(p.getX(), p.getY()) == this;
+        }
+        return getAbsoluteBounds().contains(p.getX(), p.getY());
     }
 
     public boolean isInside() {
@@ -1133,6 +1407,9 @@ public abstract class Controller<T> implements ControllerInterface<T>, CDrawable
      * @return boolean
      */
     public boolean isMousePressed() {
+        if (controlWindow.isSinglePassDispatch()) {
+            return isMousePressed;
+        }
         return isMousePressed && currentPointer == controlWindow.getCurrentPointer();
     }
 
@@ -1459,6 +1736,154 @@ public abstract class Controller<T> implements ControllerInterface<T>, CDrawable
         return _myPickingColor;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    public int getDrawOrder() {
+        return drawOrder;
+    }
+
+    /**
+     * @exclude
+     */
+    public T setDrawOrder(int theOrder) {
+        drawOrder = theOrder;
+        return me;
+    }
+
+    /**
+     * @exclude
+     */
+    public T setPickingColor(int theColor) {
+        _myPickingColor = theColor;
+        return me;
+    }
+
+    /**
+     * displays the view of the controller, from its view cache when enabled.
+     * The graphics are translated to the position of the controller.
+     */
+    protected void displayView(PGraphics graphics) {
+        if (viewCache == null || !viewCache.display(graphics)) {
+            renderView(graphics);
+        }
+    }
+
+    /**
+     * displays the view of the controller, without cache.
+     */
+    protected void renderView(PGraphics graphics) {
+        _myControllerView.display(graphics, me);
+    }
+
+    /**
+     * Keeps the pixels of the view in an offscreen image, drawn again only
+     * when the fingerprint of the controller changes. For controllers that
+     * rarely change, e.g. buttons and labels.
+     *
+     * @see ViewCache
+     * @return Controller
+     */
+    public T enableViewCache() {
+        if (viewCache == null) {
+            viewCache = new ViewCache(this);
+        }
+        return me;
+    }
+
+    public T disableViewCache() {
+        viewCache = null;
+        return me;
+    }
+
+    public boolean isViewCached() {
+        return viewCache != null;
+    }
+
+    /**
+     * @return the view cache, or null when it is disabled.
+     */
+    public ViewCache getViewCache() {
+        return viewCache;
+    }
+
+    /**
+     * returns a hash of the state displayed by the view: value, hover and
+     * active state, colors, labels and size. Override it to add the state of
+     * a custom view.
+     *
+     * @return long
+     */
+    protected long getViewFingerprint() {
+        long h = 17;
+        h = 31 * h + Float.floatToIntBits(_myValue);
+        h = 31 * h + (_myStringValue == null ? 0 : _myStringValue.hashCode());
+        h = 31 * h + Arrays.hashCode(_myArrayValue);
+        h = 31 * h + ((isPointerOver ? 1 : 0) | (isMousePressed ? 2 : 0) | (isActive ? 4 : 0)
+                | (isLock ? 8 : 0) | (isLabelVisible ? 16 : 0));
+        h = 31 * h + color.getForeground();
+        h = 31 * h + color.getBackground();
+        h = 31 * h + color.getActive();
+        h = 31 * h + color.getCaptionLabel();
+        h = 31 * h + color.getValueLabel();
+        h = 31 * h + labelFingerprint(_myCaptionLabel);
+        h = 31 * h + labelFingerprint(_myValueLabel);
+        h = 31 * h + width;
+        h = 31 * h + height;
+        h = 31 * h + _myDisplayMode;
+        h = 31 * h + System.identityHashCode(_myControllerView);
+        return h;
+    }
+
+    protected static int labelFingerprint(Label theLabel) {
+        if (theLabel == null) {
+            return 0;
+        }
+        String text = theLabel.getText();
+        return (text == null ? 0 : text.hashCode()) * 31 + theLabel.getColor() + (theLabel.isVisible() ? 1 : 0);
+    }
+
+    /**
+     * draws the controller again in retained mode. The value, label, color,
+     * hover and pressed state changes already call it.
+     *
+     * @see ControlWindow#enableRetainedMode()
+     */
+    public T invalidate() {
+        if (controlWindow != null) {
+            controlWindow.damage(this);
+        }
+        return me;
+    }
+
+    /**
+     * called in each update phase of the window, before the pointer events
+     * reach the visible controllers, once registered with
+     * {@link ControlWindow#addBackgroundUpdate(Controller)}. Unlike
+     * updateInternalEvents it runs when the controller is not visible.
+     */
+    protected void backgroundUpdate() {
+    }
+
+    /**
+     * returns true when the controller changes without any event, e.g. a
+     * blinking cursor: it is then drawn again each frame in retained mode.
+     */
+    protected boolean isAnimated() {
+        return false;
+    }
+
+    /**
+     * draws the shape used by the picking buffer, at the origin, with the
+     * fill set to the picking color. Override it for controllers that are
+     * not rectangles.
+     *
+     * @see PickingBuffer
+     */
+    protected void drawPickingShape(PGraphics theGraphics) {
+        theGraphics.rect(0, 0, getWidth(), getHeight());
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -1477,6 +1902,7 @@ public abstract class Controller<T> implements ControllerInterface<T>, CDrawable
     @Skatolo.Layout
     public T setCaptionLabel(final String theLabel) {
         _myCaptionLabel.set(theLabel);
+        invalidate();
         return me;
     }
 
@@ -1490,6 +1916,7 @@ public abstract class Controller<T> implements ControllerInterface<T>, CDrawable
     @Skatolo.Layout
     public T setValueLabel(final String theLabel) {
         _myValueLabel.set(theLabel);
+        invalidate();
         return me;
     }
 
@@ -1563,6 +1990,7 @@ public abstract class Controller<T> implements ControllerInterface<T>, CDrawable
 
     protected void broadcast(int theType) {
         theType = _myBroadcastType;
+        invalidate();
         final ControlEvent myEvent = new ControlEvent(this);
         for (ControlListener cl : _myControlListener) {
             cl.controlEvent(myEvent);
@@ -1609,6 +2037,7 @@ public abstract class Controller<T> implements ControllerInterface<T>, CDrawable
         setPointerOver(false);
         isVisible = false;
         isActive = false;
+        controlWindow.markLayoutChanged();
         return me;
     }
 
@@ -1618,6 +2047,7 @@ public abstract class Controller<T> implements ControllerInterface<T>, CDrawable
     @Override
     public T show() {
         isVisible = true;
+        controlWindow.markLayoutChanged();
         return me;
     }
 
@@ -1639,6 +2069,7 @@ public abstract class Controller<T> implements ControllerInterface<T>, CDrawable
     @Skatolo.Layout
     public T setColorActive(final int theColor) {
         color.setActive(theColor);
+        invalidate();
         return me;
     }
 
@@ -1649,6 +2080,7 @@ public abstract class Controller<T> implements ControllerInterface<T>, CDrawable
     @Skatolo.Layout
     public T setColorForeground(final int theColor) {
         color.setForeground(theColor);
+        invalidate();
         return me;
     }
 
@@ -1659,6 +2091,7 @@ public abstract class Controller<T> implements ControllerInterface<T>, CDrawable
     @Skatolo.Layout
     public T setColorBackground(final int theColor) {
         color.setBackground(theColor);
+        invalidate();
         return me;
     }
 
@@ -1672,6 +2105,7 @@ public abstract class Controller<T> implements ControllerInterface<T>, CDrawable
     public T setColorCaptionLabel(final int theColor) {
         color.setCaptionLabel(theColor);
         _myCaptionLabel.setColor(color.getCaptionLabel());
+        invalidate();
         return me;
     }
 
@@ -1685,6 +2119,7 @@ public abstract class Controller<T> implements ControllerInterface<T>, CDrawable
         if (_myValueLabel != null) {
             _myValueLabel.setColor(color.getValueLabel());
         }
+        invalidate();
         return me;
     }
 
@@ -1741,6 +2176,7 @@ public abstract class Controller<T> implements ControllerInterface<T>, CDrawable
             availableImages[theState] = true;
             updateDisplayMode(IMAGE);
         }
+        invalidate();
         return me;
     }
 
@@ -1795,6 +2231,7 @@ public abstract class Controller<T> implements ControllerInterface<T>, CDrawable
      */
     public T setView(ControllerView<T> theDisplay) {
         setView(theDisplay, CUSTOM);
+        invalidate();
         return me;
     }
 
@@ -1873,6 +2310,7 @@ public abstract class Controller<T> implements ControllerInterface<T>, CDrawable
     @Skatolo.Layout
     public T setWidth(int theWidth) {
         width = theWidth;
+        updateAbsolutePosition();
         return me;
     }
 
@@ -1883,6 +2321,7 @@ public abstract class Controller<T> implements ControllerInterface<T>, CDrawable
     @Skatolo.Layout
     public T setHeight(int theHeight) {
         height = theHeight;
+        updateAbsolutePosition();
         return me;
     }
 
@@ -1918,6 +2357,7 @@ public abstract class Controller<T> implements ControllerInterface<T>, CDrawable
         _myValueLabel.align(t);
         _myValueLabel.setColor(color.getValueLabel());
         _myValueLabel.set("" + adjustValue(getValue()));
+        invalidate();
         return me;
     }
 
@@ -2028,6 +2468,7 @@ public abstract class Controller<T> implements ControllerInterface<T>, CDrawable
     @Skatolo.Layout
     public T setLock(boolean theValue) {
         isLock = theValue;
+        invalidate();
         return me;
     }
 
@@ -37,7 +37,9 @@ import processing.core.PVector;
 /**
  * 
  * The ControllerInterface is inherited by all ControllerGroup and Controller
- * classes.
+ * classes. The methods added for the update and render phases, the bounds and
+ * the draw order have default implementations, so that implementations made
+ * outside of skatolo keep compiling.
  * 
  */
 public interface ControllerInterface<T> {
@@ -70,6 +72,17 @@ public interface ControllerInterface<T> {
 	public T setAbsolutePosition(PVector thePVector);
 	public T updateAbsolutePosition();
 
+	/**
+	 * returns the bounds of the controller in window coordinates. The returned
+	 * object is owned by the controller and updated in place, it must not be
+	 * kept between frames. By default, new bounds made from the absolute
+	 * position and the size.
+	 */
+	public default Bounds getAbsoluteBounds() {
+		PVector p = getAbsolutePosition();
+		return new Bounds(p.x, p.y, getWidth(), getHeight());
+	}
+
 	public ControllerInterface<?> getParent();
 	
         public T bringToFront();
@@ -92,6 +105,26 @@ public interface ControllerInterface<T> {
 	 */
 	public T updateInternalEvents(PApplet theApplet);
 
+	/**
+	 * the update phase of a frame: runs updateInternalEvents() of the
+	 * controller, and of its visible children for a group. Called once per
+	 * frame by the ControlWindow before the render phase.
+	 * 
+	 * @param theFrame the frame being updated
+	 */
+	public default T update(int theFrame) {
+		return updateInternalEvents(getWindow().papplet());
+	}
+
+	/**
+	 * the render phase of a frame: draws the controller without changing its
+	 * state, it can be called for several surfaces in the same frame. By
+	 * default, calls draw(PGraphics).
+	 */
+	public default void render(PGraphics graphics) {
+		draw(graphics);
+	}
+
         
 	public void draw(PGraphics graphics);
 
@@ -129,6 +162,23 @@ public interface ControllerInterface<T> {
 
 	public int getPickingColor();
 
+	/**
+	 * the position of the controller in the last draw pass, controllers with
+	 * a higher draw order are drawn on top. By default 0, the controller is
+	 * then below the controllers of skatolo.
+	 */
+	public default int getDrawOrder() {
+		return 0;
+	}
+
+	/**
+	 * @exclude
+	 */
+	@SuppressWarnings("unchecked")
+	public default T setDrawOrder(int theOrder) {
+		return (T) this;
+	}
+
 	public ControllerInterface<?> parent();
 
 	public ControllerProperty getProperty(String thePropertyName);
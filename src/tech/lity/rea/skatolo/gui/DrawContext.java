@@ -0,0 +1,219 @@
+/*
+ *  skatolo is a processing gui library.
+ *
+ * Copyright (C)  2017 by RealityTechSASU
+ * Copyright (C)  2015-2016 by Jeremy Laviole
+ * Copyright (C)  2006-2012 by Andreas Schlegel
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ *
+ *
+ */
+package tech.lity.rea.skatolo.gui;
+
+import processing.core.PConstants;
+import processing.core.PFont;
+import processing.core.PGraphics;
+import processing.core.PImage;
+
+/**
+ * Draws into a PGraphics and skips the state changes that would not change
+ * anything: a fill, stroke, stroke weight or font equal to the current one is
+ * not set again. The current state is read from the graphics itself, so
+ * drawing directly into the graphics in between is safe.
+ *
+ * The translations are not applied to the matrix, they are added to the
+ * coordinates of the shapes drawn through the context. getGraphics() applies
+ * them first, for drawing directly into the graphics.
+ *
+ * @see tech.lity.rea.skatolo.gui.controllers.ContextView
+ * @see ControlWindow#getDrawContext(PGraphics)
+ */
+public class DrawContext {
+
+    private PGraphics graphics;
+    private float x = 0;
+    private float y = 0;
+
+    private long changes = 0;
+    private long skipped = 0;
+
+    public DrawContext(PGraphics theGraphics) {
+        graphics = theGraphics;
+    }
+
+    /**
+     * @return the graphics, with the translations of the context applied.
+     */
+    public PGraphics getGraphics() {
+        flush();
+        return graphics;
+    }
+
+    PGraphics getTarget() {
+        return graphics;
+    }
+
+    /**
+     * draws into another graphics from now on, the pending translations are
+     * applied to the previous one.
+     */
+    DrawContext setTarget(PGraphics theGraphics) {
+        flush();
+        graphics = theGraphics;
+        return this;
+    }
+
+    /**
+     * applies the translations of the context to the matrix of the graphics.
+     */
+    public void flush() {
+        if (x != 0 || y != 0) {
+            graphics.translate(x, y);
+            x = 0;
+            y = 0;
+        }
+    }
+
+    public DrawContext translate(float theX, float theY) {
+        x += theX;
+        y += theY;
+        return this;
+    }
+
+    public DrawContext fill(int theColor) {
+        // colors without alpha are gray values for Processing, always set.
+        if (graphics.fill && graphics.fillColor == theColor && isArgb(theColor)) {
+            skipped++;
+        } else {
+            graphics.fill(theColor);
+            changes++;
+        }
+        return this;
+    }
+
+    public DrawContext noFill() {
+        if (graphics.fill) {
+            graphics.noFill();
+            changes++;
+        } else {
+            skipped++;
+        }
+        return this;
+    }
+
+    public DrawContext stroke(int theColor) {
+        if (graphics.stroke && graphics.strokeColor == theColor && isArgb(theColor)) {
+            skipped++;
+        } else {
+            graphics.stroke(theColor);
+            changes++;
+        }
+        return this;
+    }
+
+    public DrawContext noStroke() {
+        if (graphics.stroke) {
+            graphics.noStroke();
+            changes++;
+        } else {
+            skipped++;
+        }
+        return this;
+    }
+
+    public DrawContext strokeWeight(float theWeight) {
+        if (graphics.strokeWeight == theWeight) {
+            skipped++;
+        } else {
+            graphics.strokeWeight(theWeight);
+            changes++;
+        }
+        return this;
+    }
+
+    public DrawContext textFont(PFont theFont, float theSize) {
+        if (graphics.textFont == theFont && graphics.textSize == theSize) {
+            skipped++;
+        } else {
+            graphics.textFont(theFont, theSize);
+            changes++;
+        }
+        return this;
+    }
+
+    private boolean isArgb(int theColor) {
+        return (theColor & 0xff000000) != 0 && graphics.colorModeA == 255;
+    }
+
+    public void rect(float theX, float theY, float theWidth, float theHeight) {
+        if (graphics.rectMode == PConstants.CORNERS) {
+            graphics.rect(x + theX, y + theY, x + theWidth, y + theHeight);
+        } else {
+            graphics.rect(x + theX, y + theY, theWidth, theHeight);
+        }
+    }
+
+    public void ellipse(float theX, float theY, float theWidth, float theHeight) {
+        if (graphics.ellipseMode == PConstants.CORNERS) {
+            graphics.ellipse(x + theX, y + theY, x + theWidth, y + theHeight);
+        } else {
+            graphics.ellipse(x + theX, y + theY, theWidth, theHeight);
+        }
+    }
+
+    public void line(float theX0, float theY0, float theX1, float theY1) {
+        graphics.line(x + theX0, y + theY0, x + theX1, y + theY1);
+    }
+
+    public void triangle(float theX0, float theY0, float theX1, float theY1, float theX2, float theY2) {
+        graphics.triangle(x + theX0, y + theY0, x + theX1, y + theY1, x + theX2, y + theY2);
+    }
+
+    public void image(PImage theImage, float theX, float theY) {
+        graphics.image(theImage, x + theX, y + theY);
+    }
+
+    public void text(String theText, float theX, float theY) {
+        graphics.text(theText, x + theX, y + theY);
+    }
+
+    /**
+     * draws a label of a controller at an offset.
+     */
+    public void label(Label theLabel, int theX, int theY, ControllerInterface<?> theController) {
+        if (x != (int) x || y != (int) y) {
+            // labels are drawn at whole pixels.
+            flush();
+        }
+        theLabel.draw(graphics, (int) x + theX, (int) y + theY, theController);
+    }
+
+    /**
+     * @return the number of state changes sent to the graphics.
+     */
+    public long getChanges() {
+        return changes;
+    }
+
+    /**
+     * @return the number of state changes skipped as the state was already
+     * set.
+     */
+    public long getSkipped() {
+        return skipped;
+    }
+}
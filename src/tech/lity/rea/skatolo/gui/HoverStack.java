@@ -0,0 +1,164 @@
+/*
+ *  skatolo is a processing gui library.
+ *
+ * Copyright (C)  2017 by RealityTechSASU
+ * Copyright (C)  2015-2016 by Jeremy Laviole
+ * Copyright (C)  2006-2012 by Andreas Schlegel
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ *
+ *
+ */
+package tech.lity.rea.skatolo.gui;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * The controllers under a pointer. Adding, removing and checking a controller
+ * take constant time. The top of the stack is the controller drawn last (see
+ * {@link ControllerInterface#getDrawOrder()}), it is cached and searched again
+ * only when it leaves or when the draw order changed.
+ *
+ * As a List, the order of the elements is not the z-order, and it can only be
+ * changed by the ControlWindow.
+ *
+ * @see ControlWindow#getMouseOverList()
+ */
+public class HoverStack extends AbstractList<ControllerInterface<?>> {
+
+    private final ControlWindow window;
+    private final Map<ControllerInterface<?>, Integer> indices = new IdentityHashMap<ControllerInterface<?>, Integer>();
+    private ControllerInterface<?>[] items = new ControllerInterface<?>[8];
+    private int count = 0;
+
+    private int top = -1;
+    private int topEpoch = -1;
+
+    HoverStack(ControlWindow theWindow) {
+        window = theWindow;
+    }
+
+    @Override
+    public ControllerInterface<?> get(int theIndex) {
+        if (theIndex < 0 || theIndex >= count) {
+            throw new IndexOutOfBoundsException("Index: " + theIndex + ", Size: " + count);
+        }
+        return items[theIndex];
+    }
+
+    @Override
+    public int size() {
+        return count;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indices.containsKey(o);
+    }
+
+    @Override
+    public boolean add(ControllerInterface<?> theController) {
+        if (indices.containsKey(theController)) {
+            return false;
+        }
+        if (count == items.length) {
+            items = Arrays.copyOf(items, count * 2);
+        }
+        items[count] = theController;
+        indices.put(theController, count);
+        if (top >= 0 && topEpoch == window.getDrawOrderEpoch()
+                && theController.getDrawOrder() > items[top].getDrawOrder()) {
+            top = count;
+        }
+        count++;
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        Integer index = indices.remove(o);
+        if (index == null) {
+            return false;
+        }
+        int i = index;
+        int last = --count;
+        if (i != last) {
+            items[i] = items[last];
+            indices.put(items[i], i);
+        }
+        items[last] = null;
+        if (top == i) {
+            top = -1;
+        } else if (top == last) {
+            top = i;
+        }
+        return true;
+    }
+
+    @Override
+    public ControllerInterface<?> remove(int theIndex) {
+        ControllerInterface<?> c = get(theIndex);
+        remove(c);
+        return c;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(items, 0, count, null);
+        indices.clear();
+        count = 0;
+        top = -1;
+    }
+
+    /**
+     * @return the controller drawn on top of the others, or null.
+     */
+    public ControllerInterface<?> top() {
+        if (count == 0) {
+            return null;
+        }
+        if (top < 0 || topEpoch != window.getDrawOrderEpoch()) {
+            topEpoch = window.getDrawOrderEpoch();
+            top = 0;
+            for (int i = 1; i < count; i++) {
+                if (items[i].getDrawOrder() > items[top].getDrawOrder()) {
+                    top = i;
+                }
+            }
+        }
+        return items[top];
+    }
+
+    /**
+     * @return the visible controller drawn on top of the others, or null.
+     */
+    public ControllerInterface<?> topVisible() {
+        ControllerInterface<?> c = top();
+        if (c == null || c.isVisible()) {
+            return c;
+        }
+        c = null;
+        for (int i = 0; i < count; i++) {
+            if (items[i].isVisible() && (c == null || items[i].getDrawOrder() > c.getDrawOrder())) {
+                c = items[i];
+            }
+        }
+        return c;
+    }
+}
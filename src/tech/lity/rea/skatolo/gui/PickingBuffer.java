@@ -0,0 +1,141 @@
+/*
+ *  skatolo is a processing gui library.
+ *
+ * Copyright (C)  2017 by RealityTechSASU
+ * Copyright (C)  2015-2016 by Jeremy Laviole
+ * Copyright (C)  2006-2012 by Andreas Schlegel
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ *
+ *
+ */
+package tech.lity.rea.skatolo.gui;
+
+import java.util.ArrayList;
+import java.util.List;
+import processing.core.PConstants;
+import processing.core.PGraphics;
+import tech.lity.rea.skatolo.gui.group.ControllerGroup;
+import tech.lity.rea.skatolo.gui.group.Tab;
+
+/**
+ * An offscreen ID buffer: each controller is drawn with a unique picking
+ * color, in draw order, using its picking shape (see
+ * {@link Controller#drawPickingShape(PGraphics)}). Finding the controller
+ * below a pointer is then a single pixel read, with exact shapes and the
+ * controllers drawn on top winning.
+ *
+ * The buffer is drawn again only when the layout of the window changed.
+ *
+ * @see ControlWindow#enablePicking()
+ */
+public class PickingBuffer {
+
+    private final ControlWindow window;
+    private final PGraphics buffer;
+    private final List<Controller<?>> controllers = new ArrayList<Controller<?>>();
+    private int renderedEpoch = -1;
+    private int renderCount = 0;
+
+    /**
+     * @exclude
+     */
+    public PickingBuffer(ControlWindow theWindow, int theWidth, int theHeight) {
+        window = theWindow;
+        buffer = theWindow.papplet().createGraphics(theWidth, theHeight);
+        // no antialiasing, the colors are ids.
+        buffer.noSmooth();
+    }
+
+    /**
+     * returns the topmost controller at the given location, or null.
+     */
+    public Controller<?> pick(int theX, int theY) {
+        update();
+        if (theX < 0 || theY < 0 || theX >= buffer.width || theY >= buffer.height) {
+            return null;
+        }
+        int index = (buffer.pixels[theY * buffer.width + theX] & 0xffffff) - 1;
+        return (index >= 0 && index < controllers.size()) ? controllers.get(index) : null;
+    }
+
+    /**
+     * draws the buffer again if the layout changed since the last time.
+     */
+    public void update() {
+        if (renderedEpoch != window.getLayoutEpoch()) {
+            render();
+        }
+    }
+
+    public PGraphics getBuffer() {
+        return buffer;
+    }
+
+    /**
+     * @return how many times the buffer has been drawn.
+     */
+    public int getRenderCount() {
+        return renderCount;
+    }
+
+    private void render() {
+        renderedEpoch = window.getLayoutEpoch();
+        renderCount++;
+        controllers.clear();
+
+        buffer.beginDraw();
+        buffer.background(0);
+        buffer.noStroke();
+        buffer.rectMode(PConstants.CORNER);
+        buffer.ellipseMode(PConstants.CORNER);
+
+        // same order as ControlWindow.draw()
+        ControllerList tabs = window.getTabs();
+        for (int i = 1; i < tabs.size(); i++) {
+            Tab tab = (Tab) tabs.get(i);
+            if (tab.isVisible() && tab.isActive()) {
+                render(tab);
+            }
+        }
+        if (tabs.size() > 0) {
+            render(window.getGlobalTab());
+        }
+        buffer.endDraw();
+        buffer.loadPixels();
+    }
+
+    private void render(ControllerGroup<?> theGroup) {
+        if (!theGroup.isVisible() || !theGroup.isOpen()) {
+            return;
+        }
+        for (ControllerInterface<?> ci : theGroup.getControllers().get()) {
+            if (ci instanceof ControllerGroup<?>) {
+                render((ControllerGroup<?>) ci);
+            } else if (ci instanceof Controller<?> && ci.isVisible()) {
+                Controller<?> c = (Controller<?>) ci;
+                controllers.add(c);
+                c.setPickingColor(0xff000000 | controllers.size());
+                Bounds bounds = c.getAbsoluteBounds();
+                buffer.pushMatrix();
+                buffer.translate(bounds.getX(), bounds.getY());
+                buffer.fill(c.getPickingColor());
+                c.drawPickingShape(buffer);
+                buffer.popMatrix();
+            }
+        }
+    }
+}
@@ -44,6 +44,26 @@ public class Pointer {
         STILL_RELEASED, RELEASED, STILL_PRESSED, PRESSED, TOUCH, HOVER
     }
 
+    /**
+     * How the positions received between two frames are dispatched. LATEST
+     * uses the last two positions, ACCUMULATE uses the position of the
+     * previous frame as previous position, REPLAY dispatches every sample of
+     * the frame (requires the history).
+     * <p>
+     * REPLAY only replays the pointer events: hover, enter, leave, press and
+     * onDrag() see every sample. The values of the controllers set in
+     * updateInternalEvents(), e.g. Slider, Knob and Slider2D, are updated once
+     * per frame from the last position and the position of the previous
+     * frame, as with ACCUMULATE.
+     */
+    public enum Coalescing {
+
+        LATEST, ACCUMULATE, REPLAY
+    }
+
+    // time span used to compute the velocity, in nanoseconds.
+    static final long VELOCITY_WINDOW = 50000000L;
+
     static final int INVALID_LOCATION = Integer.MIN_VALUE;
 
     private Type type;
@@ -55,6 +75,26 @@ public class Pointer {
 
     private boolean enabled = true;
 
+    // last drain of the PointerEventQueue which moved this pointer.
+    int drainCount = 0;
+
+    // position at the end of the last dispatch.
+    private int frameX = INVALID_LOCATION, frameY = INVALID_LOCATION;
+
+    // optional ring of timestamped positions.
+    private int[] sampleXs, sampleYs;
+    private long[] sampleTimes;
+    private int sampleHead = 0;
+    private int sampleCount = 0;
+    private long sampleTotal = 0;
+    private long frameSampleTotal = 0;
+
+    // index in the PointerList, and created by it.
+    int listIndex = -1;
+    boolean isPooled = false;
+    // created by ControlWindow.getHoverStack().
+    HoverStack hoverStack = null;
+
     public Pointer() {
     }
 
@@ -96,18 +136,201 @@ public class Pointer {
         updatePreviousPosition(x, y);
         this.x = x;
         this.y = y;
-
+        if (sampleTimes != null) {
+            addSample(x, y, System.nanoTime());
+        }
         return this;
     }
 
     public Pointer updatePosition(int x, int y, int px, int py) {
+        return updatePosition(x, y, px, py, sampleTimes == null ? 0 : System.nanoTime());
+    }
+
+    /**
+     * @param time of the sample, from System.nanoTime().
+     */
+    Pointer updatePosition(int x, int y, int px, int py, long time) {
         this.x = x;
         this.y = y;
         this.px = px;
         this.py = py;
+        if (sampleTimes != null) {
+            addSample(x, y, time);
+        }
+        return this;
+    }
+
+    /**
+     * keeps the last positions of the pointer with their time, to get the
+     * motion between two frames, the velocity and a predicted position.
+     *
+     * @param theCapacity number of samples kept.
+     * @return Pointer
+     */
+    public Pointer enableHistory(int theCapacity) {
+        sampleXs = new int[theCapacity];
+        sampleYs = new int[theCapacity];
+        sampleTimes = new long[theCapacity];
+        sampleHead = 0;
+        sampleCount = 0;
+        return this;
+    }
+
+    public Pointer disableHistory() {
+        sampleXs = null;
+        sampleYs = null;
+        sampleTimes = null;
+        sampleCount = 0;
         return this;
     }
 
+    public boolean isHistoryEnabled() {
+        return sampleTimes != null;
+    }
+
+    private void addSample(int x, int y, long time) {
+        sampleXs[sampleHead] = x;
+        sampleYs[sampleHead] = y;
+        sampleTimes[sampleHead] = time;
+        sampleHead = (sampleHead + 1) % sampleTimes.length;
+        if (sampleCount < sampleTimes.length) {
+            sampleCount++;
+        }
+        sampleTotal++;
+    }
+
+    /**
+     * @return the number of samples in the history.
+     */
+    public int getSampleCount() {
+        return sampleCount;
+    }
+
+    /**
+     * @return the number of samples received since the last frame.
+     */
+    public int getFrameSampleCount() {
+        return (int) Math.min(sampleTotal - frameSampleTotal, sampleCount);
+    }
+
+    private int sampleIndex(int i) {
+        if (i < 0 || i >= sampleCount) {
+            throw new IndexOutOfBoundsException("Sample " + i + " of " + sampleCount);
+        }
+        int index = sampleHead - sampleCount + i;
+        return index < 0 ? index + sampleTimes.length : index;
+    }
+
+    /**
+     * @param i from 0, the oldest, to getSampleCount() - 1, the latest.
+     */
+    public int getSampleX(int i) {
+        return sampleXs[sampleIndex(i)];
+    }
+
+    public int getSampleY(int i) {
+        return sampleYs[sampleIndex(i)];
+    }
+
+    /**
+     * @return the time of the sample, from System.nanoTime().
+     */
+    public long getSampleTime(int i) {
+        return sampleTimes[sampleIndex(i)];
+    }
+
+    /**
+     * velocity over the last samples, in pixels per second. 0 without
+     * history.
+     */
+    public float getVelocityX() {
+        int first = velocitySample();
+        if (first < 0) {
+            return 0;
+        }
+        int last = sampleCount - 1;
+        return (getSampleX(last) - getSampleX(first)) * 1e9f / (getSampleTime(last) - getSampleTime(first));
+    }
+
+    public float getVelocityY() {
+        int first = velocitySample();
+        if (first < 0) {
+            return 0;
+        }
+        int last = sampleCount - 1;
+        return (getSampleY(last) - getSampleY(first)) * 1e9f / (getSampleTime(last) - getSampleTime(first));
+    }
+
+    // oldest sample within the velocity window, or -1.
+    private int velocitySample() {
+        if (sampleCount < 2) {
+            return -1;
+        }
+        int last = sampleCount - 1;
+        long lastTime = getSampleTime(last);
+        int first = last;
+        while (first > 0 && lastTime - getSampleTime(first - 1) <= VELOCITY_WINDOW) {
+            first--;
+        }
+        if (first == last) {
+            first = last - 1;
+        }
+        return getSampleTime(last) > getSampleTime(first) ? first : -1;
+    }
+
+    /**
+     * position extrapolated from the current velocity.
+     *
+     * @param theSeconds how far ahead, e.g. one frame: 1 / frameRate.
+     */
+    public int getPredictedX(float theSeconds) {
+        return x + Math.round(getVelocityX() * theSeconds);
+    }
+
+    public int getPredictedY(float theSeconds) {
+        return y + Math.round(getVelocityY() * theSeconds);
+    }
+
+    /**
+     * @return the position at the end of the last frame.
+     */
+    public int getFrameX() {
+        return frameX;
+    }
+
+    public int getFrameY() {
+        return frameY;
+    }
+
+    /**
+     * sets the position without recording a sample, used to replay samples.
+     */
+    void setPositions(int x, int y, int px, int py) {
+        this.x = x;
+        this.y = y;
+        this.px = px;
+        this.py = py;
+    }
+
+    /**
+     * the previous position becomes the one of the last frame.
+     */
+    void accumulate() {
+        if (frameX != INVALID_LOCATION && frameY != INVALID_LOCATION) {
+            px = frameX;
+            py = frameY;
+        }
+    }
+
+    /**
+     * called once the pointer has been dispatched for the frame.
+     */
+    void endFrame() {
+        frameX = x;
+        frameY = y;
+        frameSampleTotal = sampleTotal;
+    }
+
     private void updatePreviousPosition(int newX, int newY) {
         if (px == INVALID_LOCATION || py == INVALID_LOCATION) {
             px = newX;
@@ -163,6 +386,33 @@ public class Pointer {
         return this.id;
     }
 
+    void setID(int id) {
+        this.id = id;
+    }
+
+    /**
+     * back to the state of a new pointer, when taken from the pool.
+     */
+    void reset() {
+        type = null;
+        status = null;
+        x = INVALID_LOCATION;
+        y = INVALID_LOCATION;
+        px = INVALID_LOCATION;
+        py = INVALID_LOCATION;
+        enabled = true;
+        drainCount = 0;
+        frameX = INVALID_LOCATION;
+        frameY = INVALID_LOCATION;
+        sampleHead = 0;
+        sampleCount = 0;
+        sampleTotal = 0;
+        frameSampleTotal = 0;
+        if (hoverStack != null) {
+            hoverStack.clear();
+        }
+    }
+
     public void enable() {
         this.enabled = true;
     }
@@ -0,0 +1,218 @@
+/*
+ *  skatolo is a processing gui library.
+ *
+ * Copyright (C)  2017 by RealityTechSASU
+ * Copyright (C)  2015-2016 by Jeremy Laviole
+ * Copyright (C)  2006-2012 by Andreas Schlegel
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ *
+ *
+ */
+package tech.lity.rea.skatolo.gui;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Pointer events pushed by any thread (camera, depth or touch tracking) and
+ * applied to the PointerList by the animation thread, in ControlWindow.pre().
+ * It is a bounded multi-producer single-consumer ring buffer, offers never
+ * block and return false when the queue is full.
+ *
+ * When draining, the positions received for a pointer during a frame are
+ * coalesced: the previous position stays the one of the last frame. Each
+ * position keeps the time it was offered at, for the pointer history. A press
+ * or a release is never overwritten before being dispatched, the rest of the
+ * queue is then kept for the next frame.
+ *
+ * @see tech.lity.rea.skatolo.Skatolo#getPointerQueue()
+ */
+public class PointerEventQueue {
+
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    static final int ADD = 0;
+    static final int POSITION = 1;
+    static final int PRESS = 2;
+    static final int RELEASE = 3;
+    static final int REMOVE = 4;
+
+    private final int capacity;
+    private final int mask;
+
+    // sequence of each slot: equal to the write position when free, to the
+    // write position + 1 when written.
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private long head = 0;
+
+    private final int[] events;
+    private final int[] ids;
+    private final int[] xs;
+    private final int[] ys;
+    private final long[] times;
+
+    private int drainCount = 0;
+
+    public PointerEventQueue() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param theCapacity rounded up to a power of two.
+     */
+    public PointerEventQueue(int theCapacity) {
+        int c = 2;
+        while (c < theCapacity) {
+            c <<= 1;
+        }
+        capacity = c;
+        mask = c - 1;
+        sequences = new AtomicLongArray(c);
+        for (int i = 0; i < c; i++) {
+            sequences.set(i, i);
+        }
+        events = new int[c];
+        ids = new int[c];
+        xs = new int[c];
+        ys = new int[c];
+        times = new long[c];
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * adds a pointer, it is also added by its first position.
+     */
+    public boolean offerAdd(int id, Pointer.Type type) {
+        return offer(ADD, id, type.ordinal(), 0);
+    }
+
+    public boolean offerPosition(int id, int x, int y) {
+        return offer(POSITION, id, x, y);
+    }
+
+    public boolean offerPress(int id, boolean pressed) {
+        return offer(pressed ? PRESS : RELEASE, id, 0, 0);
+    }
+
+    public boolean offerRemove(int id) {
+        return offer(REMOVE, id, 0, 0);
+    }
+
+    private boolean offer(int event, int id, int x, int y) {
+        long pos;
+        int index;
+        while (true) {
+            pos = tail.get();
+            index = (int) (pos & mask);
+            long dif = sequences.get(index) - pos;
+            if (dif == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    break;
+                }
+            } else if (dif < 0) {
+                // full
+                return false;
+            }
+        }
+        events[index] = event;
+        ids[index] = id;
+        xs[index] = x;
+        ys[index] = y;
+        times[index] = System.nanoTime();
+        sequences.lazySet(index, pos + 1);
+        return true;
+    }
+
+    public boolean isEmpty() {
+        return sequences.get((int) (head & mask)) != head + 1;
+    }
+
+    /**
+     * applies the pending events to the pointers. To call from the animation
+     * thread only.
+     *
+     * @exclude
+     * @return the number of events applied.
+     */
+    public int drain(PointerList thePointers) {
+        drainCount++;
+        int n = 0;
+        while (true) {
+            int index = (int) (head & mask);
+            if (sequences.get(index) != head + 1) {
+                break;
+            }
+            if (!apply(thePointers, events[index], ids[index], xs[index], ys[index], times[index])) {
+                break;
+            }
+            sequences.lazySet(index, head + capacity);
+            head++;
+            n++;
+        }
+        return n;
+    }
+
+    /**
+     * @return false when the event has to wait for the next frame.
+     */
+    private boolean apply(PointerList thePointers, int event, int id, int x, int y, long time) {
+        Pointer p = thePointers.get(id);
+        switch (event) {
+            case ADD:
+                if (p == null) {
+                    thePointers.addPointer(id).setType(Pointer.Type.values()[x]);
+                }
+                return true;
+            case POSITION:
+                if (p == null) {
+                    p = thePointers.addPointer(id);
+                }
+                if (p.drainCount == drainCount) {
+                    p.updatePosition(x, y, p.getPX(), p.getPY(), time);
+                } else {
+                    boolean isFirst = p.getPX() == Pointer.INVALID_LOCATION || p.getPY() == Pointer.INVALID_LOCATION;
+                    p.updatePosition(x, y, isFirst ? x : p.getX(), isFirst ? y : p.getY(), time);
+                    p.drainCount = drainCount;
+                }
+                return true;
+            case PRESS:
+            case RELEASE:
+                if (p == null) {
+                    return true;
+                }
+                // keep a click made within one frame.
+                if (p.isEnabled() && !p.isTouch() && !p.isHover() && (p.isPressed() || p.isReleased())) {
+                    return false;
+                }
+                if (event == PRESS) {
+                    p.setPressed();
+                } else {
+                    p.setReleased();
+                }
+                return true;
+            case REMOVE:
+                thePointers.removePointer(id);
+                return true;
+            default:
+                return true;
+        }
+    }
+}
@@ -1,60 +1,112 @@
-/* 
+/*
  *  skatolo is a processing gui library.
- * 
+ *
  * Copyright (C)  2017 by RealityTechSASU
  * Copyright (C)  2015-2016 by Jeremy Laviole
  * Copyright (C)  2006-2012 by Andreas Schlegel
- * 
+ *
  * This library is free software; you can redistribute it and/or
  * modify it under the terms of the GNU Lesser General Public
  * License as published by the Free Software Foundation; either
  * version 2.1 of the License, or (at your option) any later version.
- * 
+ *
  * This library is distributed in the hope that it will be useful,
  * but WITHOUT ANY WARRANTY; without even the implied warranty of
  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
  * Lesser General Public License for more details.
- * 
+ *
  * You should have received a copy of the GNU Lesser General Public
  * License along with this library; if not, write to the Free Software
  * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
  * MA 02110-1301  USA
- * 
- * 
+ *
+ *
  */
 package tech.lity.rea.skatolo.gui;
 
-import java.util.HashMap;
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
 
 /**
  * Pointer List handle multi-touch and mouse as input. To get the mouse, you can
  * get get
  *
+ * The pointers are stored in an int keyed open addressing table and in a
+ * dense array, use getPointerCount() and getPointerAt(int) to iterate without
+ * allocation. Pointers created by addPointer() are recycled once removed: do
+ * not keep a reference to a removed pointer.
+ *
  * @author Jeremy Laviole <laviole@rea.lity.tech>
  */
-public class PointerList extends HashMap<Integer, Pointer> {
+public class PointerList extends AbstractMap<Integer, Pointer> {
 
     static final int MOUSE = -128;
 
+    private static final int EMPTY = -1;
+    private static final int INITIAL_CAPACITY = 16;
+
+    // open addressing table, linear probing: id -> index in the dense arrays.
+    private int[] tableIds;
+    private int[] tableSlots;
+    private int tableMask;
+
+    private Pointer[] pointers;
+    private int[] ids;
+    private int count = 0;
+
+    // incremented each time a pointer is added, replaced or removed.
+    private int changeCount = 0;
+
+    // removed pointers go back to the pool after the next dispatch, when the
+    // controllers had a chance to see they are gone.
+    private Pointer[] removed = new Pointer[INITIAL_CAPACITY];
+    private int removedCount = 0;
+    private Pointer[] pool = new Pointer[INITIAL_CAPACITY];
+    private int poolCount = 0;
+
+    private final Collection<Pointer> values = new Values();
+    private final Set<Entry<Integer, Pointer>> entries = new Entries();
+
     public PointerList() {
         super();
+        tableIds = new int[INITIAL_CAPACITY * 2];
+        tableSlots = new int[INITIAL_CAPACITY * 2];
+        tableMask = tableSlots.length - 1;
+        Arrays.fill(tableSlots, EMPTY);
+        pointers = new Pointer[INITIAL_CAPACITY];
+        ids = new int[INITIAL_CAPACITY];
+
         Pointer mousePointer = new Pointer().setType(Pointer.Type.MOUSE);
-        this.put(MOUSE, mousePointer);
+        putPointer(MOUSE, mousePointer);
     }
 
     public Pointer addPointer(int id) {
-        Pointer p = new Pointer();
-        this.put(id, p);
+        Pointer p;
+        if (poolCount > 0) {
+            p = pool[--poolCount];
+            pool[poolCount] = null;
+            p.reset();
+        } else {
+            p = new Pointer();
+            p.isPooled = true;
+        }
+        putPointer(id, p);
         return p;
     }
 
     public void removePointer(int id) {
-        this.remove(id);
+        removePointerAt(find(id));
     }
 
     public void updatePointer(int id, int x, int y) throws IllegalArgumentException {
-        if (this.containsKey(id)) {
-            Pointer p = this.get(id);
+        Pointer p = getPointer(id);
+        if (p != null) {
             p.updatePosition(x, y);
         } else {
             throw new IllegalArgumentException("Pointer ID not found");
@@ -62,8 +114,8 @@ public class PointerList extends HashMap<Integer, Pointer> {
     }
 
     public void updatePointer(int id, boolean pressed) throws IllegalArgumentException {
-        if (this.containsKey(id)) {
-            Pointer p = this.get(id);
+        Pointer p = getPointer(id);
+        if (p != null) {
             if (pressed) {
                 p.setPressed();
             } else {
@@ -79,7 +131,312 @@ public class PointerList extends HashMap<Integer, Pointer> {
     }
 
     public Pointer getMousePointer() {
-        return get(MOUSE);
+        return getPointer(MOUSE);
+    }
+
+    /**
+     * @return the pointer with this id, or null.
+     */
+    public Pointer getPointer(int id) {
+        int slot = find(id);
+        return slot == EMPTY ? null : pointers[tableSlots[slot]];
+    }
+
+    public boolean containsPointer(int id) {
+        return find(id) != EMPTY;
+    }
+
+    /**
+     * checks in constant time if a pointer is still in the list.
+     */
+    public boolean containsPointer(Pointer thePointer) {
+        int index = thePointer.listIndex;
+        return index >= 0 && index < count && pointers[index] == thePointer;
+    }
+
+    public int getPointerCount() {
+        return count;
+    }
+
+    /**
+     * @param theIndex between 0 and getPointerCount() - 1, the order changes
+     * when a pointer is removed.
+     */
+    public Pointer getPointerAt(int theIndex) {
+        return pointers[theIndex];
+    }
+
+    public int getPointerIdAt(int theIndex) {
+        return ids[theIndex];
+    }
+
+    /**
+     * @return a counter incremented each time a pointer is added, replaced or
+     * removed, even when the number of pointers stays the same.
+     *
+     * @exclude
+     */
+    public int getChangeCount() {
+        return changeCount;
+    }
+
+    /**
+     * returns the removed pointers to the pool.
+     *
+     * @exclude
+     */
+    public void recycle() {
+        for (int i = 0; i < removedCount; i++) {
+            if (poolCount == pool.length) {
+                pool = Arrays.copyOf(pool, pool.length * 2);
+            }
+            pool[poolCount++] = removed[i];
+            removed[i] = null;
+        }
+        removedCount = 0;
+    }
+
+    private Pointer putPointer(int id, Pointer p) {
+        int slot = find(id);
+        if (slot != EMPTY) {
+            int index = tableSlots[slot];
+            Pointer previous = pointers[index];
+            if (previous == p) {
+                return p;
+            }
+            previous.listIndex = -1;
+            release(previous);
+            pointers[index] = p;
+            p.listIndex = index;
+            p.setID(id);
+            changeCount++;
+            return previous;
+        }
+        if (count == pointers.length) {
+            pointers = Arrays.copyOf(pointers, count * 2);
+            ids = Arrays.copyOf(ids, count * 2);
+        }
+        if ((count + 1) * 2 > tableSlots.length) {
+            resizeTable(tableSlots.length * 2);
+        }
+        pointers[count] = p;
+        ids[count] = id;
+        p.listIndex = count;
+        p.setID(id);
+        insertSlot(id, count);
+        count++;
+        changeCount++;
+        return null;
+    }
+
+    private Pointer removePointerAt(int slot) {
+        if (slot == EMPTY) {
+            return null;
+        }
+        int index = tableSlots[slot];
+        Pointer p = pointers[index];
+        removeSlot(slot);
+
+        // the last pointer takes the free place in the dense arrays.
+        int last = count - 1;
+        if (index != last) {
+            pointers[index] = pointers[last];
+            ids[index] = ids[last];
+            pointers[index].listIndex = index;
+            tableSlots[find(ids[index])] = index;
+        }
+        pointers[last] = null;
+        count--;
+        changeCount++;
+
+        p.listIndex = -1;
+        release(p);
+        return p;
+    }
+
+    private void release(Pointer p) {
+        if (!p.isPooled) {
+            return;
+        }
+        if (removedCount == removed.length) {
+            removed = Arrays.copyOf(removed, removed.length * 2);
+        }
+        removed[removedCount++] = p;
+    }
+
+    private static int hash(int id) {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private int find(int id) {
+        int i = hash(id) & tableMask;
+        while (tableSlots[i] != EMPTY) {
+            if (tableIds[i] == id) {
+                return i;
+            }
+            i = (i + 1) & tableMask;
+        }
+        return EMPTY;
+    }
+
+    private void insertSlot(int id, int index) {
+        int i = hash(id) & tableMask;
+        while (tableSlots[i] != EMPTY) {
+            i = (i + 1) & tableMask;
+        }
+        tableIds[i] = id;
+        tableSlots[i] = index;
+    }
+
+    // backward shift deletion, keeps the probe sequences without tombstones.
+    private void removeSlot(int slot) {
+        int i = slot;
+        int j = slot;
+        while (true) {
+            j = (j + 1) & tableMask;
+            if (tableSlots[j] == EMPTY) {
+                break;
+            }
+            int k = hash(tableIds[j]) & tableMask;
+            boolean inRange = (i <= j) ? (i < k && k <= j) : (i < k || k <= j);
+            if (inRange) {
+                continue;
+            }
+            tableIds[i] = tableIds[j];
+            tableSlots[i] = tableSlots[j];
+            i = j;
+        }
+        tableSlots[i] = EMPTY;
+    }
+
+    private void resizeTable(int theSize) {
+        tableIds = new int[theSize];
+        tableSlots = new int[theSize];
+        tableMask = theSize - 1;
+        Arrays.fill(tableSlots, EMPTY);
+        for (int i = 0; i < count; i++) {
+            insertSlot(ids[i], i);
+        }
+    }
+
+    // Map compatibility, boxes the ids.
+    @Override
+    public int size() {
+        return count;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof Integer && containsPointer(((Integer) key).intValue());
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        if (value instanceof Pointer) {
+            return containsPointer((Pointer) value);
+        }
+        return false;
+    }
+
+    @Override
+    public Pointer get(Object key) {
+        return key instanceof Integer ? getPointer(((Integer) key).intValue()) : null;
+    }
+
+    @Override
+    public Pointer put(Integer key, Pointer value) {
+        return putPointer(key.intValue(), value);
+    }
+
+    @Override
+    public Pointer remove(Object key) {
+        return key instanceof Integer ? removePointerAt(find(((Integer) key).intValue())) : null;
+    }
+
+    @Override
+    public void clear() {
+        while (count > 0) {
+            removePointerAt(find(ids[count - 1]));
+        }
+    }
+
+    @Override
+    public Collection<Pointer> values() {
+        return values;
+    }
+
+    @Override
+    public Set<Entry<Integer, Pointer>> entrySet() {
+        return entries;
+    }
+
+    private abstract class DenseIterator<E> implements Iterator<E> {
+
+        int next = 0;
+        int current = -1;
+
+        public boolean hasNext() {
+            return next < count;
+        }
+
+        int nextIndex() {
+            if (next >= count) {
+                throw new NoSuchElementException();
+            }
+            current = next++;
+            return current;
+        }
+
+        public void remove() {
+            if (current < 0) {
+                throw new IllegalStateException();
+            }
+            removePointerAt(find(ids[current]));
+            // the last pointer moved to the current index.
+            next = current;
+            current = -1;
+        }
+    }
+
+    private class Values extends AbstractCollection<Pointer> {
+
+        @Override
+        public Iterator<Pointer> iterator() {
+            return new DenseIterator<Pointer>() {
+                public Pointer next() {
+                    return pointers[nextIndex()];
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return count;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return containsValue(o);
+        }
+    }
+
+    private class Entries extends AbstractSet<Entry<Integer, Pointer>> {
+
+        @Override
+        public Iterator<Entry<Integer, Pointer>> iterator() {
+            return new DenseIterator<Entry<Integer, Pointer>>() {
+                public Entry<Integer, Pointer> next() {
+                    int i = nextIndex();
+                    return new SimpleImmutableEntry<Integer, Pointer>(ids[i], pointers[i]);
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return count;
+        }
     }
 
 }
@@ -0,0 +1,346 @@
+/*
+ *  skatolo is a processing gui library.
+ *
+ * Copyright (C)  2017 by RealityTechSASU
+ * Copyright (C)  2015-2016 by Jeremy Laviole
+ * Copyright (C)  2006-2012 by Andreas Schlegel
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ *
+ *
+ */
+package tech.lity.rea.skatolo.gui;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import processing.core.PConstants;
+import processing.core.PGraphics;
+import tech.lity.rea.skatolo.gui.group.Tab;
+
+/**
+ * Retained mode of a ControlWindow: each drawn tab is kept in an offscreen
+ * layer, composited every frame. Only the damaged regions of a layer are
+ * drawn again: the area of the controllers whose value, label, color, hover
+ * or pressed state changed, and of the animated ones (see
+ * {@link Controller#isAnimated()}). A layout change draws the layers again
+ * entirely. The damages made by other threads, e.g. a value set from an OSC
+ * or serial callback, are queued and applied when the next frame begins.
+ *
+ * @see ControlWindow#enableRetainedMode()
+ */
+public class RetainedRenderer {
+
+    /**
+     * above this number of damaged regions, they are merged into one.
+     */
+    public static final int MAX_REGIONS = 8;
+
+    private final ControlWindow window;
+    private final int width;
+    private final int height;
+    private final Map<Tab, PGraphics> layers = new IdentityHashMap<Tab, PGraphics>();
+
+    // damaged until the next frame, and damaged in the current frame.
+    private List<Bounds> pending = new ArrayList<Bounds>();
+    private List<Bounds> regions = new ArrayList<Bounds>();
+    private final List<Bounds> pool = new ArrayList<Bounds>();
+    private boolean isFullRepaint = true;
+    private boolean isFullFrame = false;
+    private int lastLayoutEpoch = -1;
+
+    // controllers of the last full repaint, checked for animations.
+    private final List<Controller<?>> drawn = new ArrayList<Controller<?>>();
+    private Bounds clip = null;
+    private final Bounds scratch = new Bounds();
+
+    // the thread drawing the frames, and the damages made by the others.
+    private volatile Thread frameThread;
+    private final ConcurrentLinkedQueue<Object> remoteDamages = new ConcurrentLinkedQueue<Object>();
+    private volatile boolean isRemoteFullRepaint = false;
+
+    private long fullRepaints = 0;
+    private long partialRepaints = 0;
+    private long skippedRepaints = 0;
+
+    RetainedRenderer(ControlWindow theWindow, int theWidth, int theHeight) {
+        window = theWindow;
+        width = theWidth;
+        height = theHeight;
+        frameThread = Thread.currentThread();
+    }
+
+    /**
+     * marks a region of the window to be drawn again.
+     */
+    public void damage(float theX, float theY, float theWidth, float theHeight) {
+        if (Thread.currentThread() != frameThread) {
+            remoteDamages.add(new Bounds(theX, theY, theWidth, theHeight));
+            return;
+        }
+        if (isFullRepaint || theWidth <= 0 || theHeight <= 0) {
+            return;
+        }
+        // whole pixels, the cleared area is not antialiased.
+        int x0 = Math.max(0, (int) Math.floor(theX));
+        int y0 = Math.max(0, (int) Math.floor(theY));
+        int x1 = Math.min(width, (int) Math.ceil(theX + theWidth));
+        int y1 = Math.min(height, (int) Math.ceil(theY + theHeight));
+        if (x1 <= x0 || y1 <= y0) {
+            return;
+        }
+        Bounds b = pool.isEmpty() ? new Bounds() : pool.remove(pool.size() - 1);
+        b.set(x0, y0, x1 - x0, y1 - y0);
+        for (int i = pending.size() - 1; i >= 0; i--) {
+            Bounds r = pending.get(i);
+            if (r.intersects(b)) {
+                union(b, r);
+                pool.add(pending.remove(i));
+            }
+        }
+        pending.add(b);
+        if (pending.size() > MAX_REGIONS) {
+            for (int i = pending.size() - 1; i > 0; i--) {
+                union(pending.get(0), pending.get(i));
+                pool.add(pending.remove(i));
+            }
+        }
+    }
+
+    /**
+     * marks a controller and its labels to be drawn again.
+     */
+    public void damage(Controller<?> theController) {
+        if (Thread.currentThread() != frameThread) {
+            remoteDamages.add(theController);
+            return;
+        }
+        Bounds b = paintBounds(theController, scratch);
+        damage(b.getX(), b.getY(), b.getWidth(), b.getHeight());
+    }
+
+    /**
+     * the area a controller draws in: its bounds, with room for its labels on
+     * any side. Also used by the ViewCache.
+     */
+    static Bounds paintBounds(Controller<?> theController, Bounds theResult) {
+        Bounds b = theController.getAbsoluteBounds();
+        int mx = 2;
+        int my = 2;
+        Label caption = theController.getCaptionLabel();
+        if (caption != null && caption.isVisible()) {
+            mx = Math.max(mx, labelWidth(caption));
+            my = Math.max(my, labelHeight(caption));
+        }
+        Label value = theController.getValueLabel();
+        if (value != null && value.isVisible()) {
+            mx = Math.max(mx, labelWidth(value));
+            my = Math.max(my, labelHeight(value));
+        }
+        return theResult.set(b.getX() - mx, b.getY() - my, b.getWidth() + 2 * mx, b.getHeight() + 2 * my);
+    }
+
+    private static int labelWidth(Label theLabel) {
+        ControllerStyle style = theLabel.getStyle();
+        return theLabel.getWidth() + style.paddingLeft + style.paddingRight + style.marginLeft + style.marginRight + 4;
+    }
+
+    private static int labelHeight(Label theLabel) {
+        ControllerStyle style = theLabel.getStyle();
+        return theLabel.getHeight() + style.paddingTop + style.paddingBottom + style.marginTop + style.marginBottom + 4;
+    }
+
+    /**
+     * draws all the layers again in the next frame.
+     */
+    public void damageAll() {
+        if (Thread.currentThread() != frameThread) {
+            isRemoteFullRepaint = true;
+            return;
+        }
+        isFullRepaint = true;
+        pool.addAll(pending);
+        pending.clear();
+    }
+
+    /**
+     * @exclude
+     */
+    void beginFrame() {
+        frameThread = Thread.currentThread();
+        if (isRemoteFullRepaint) {
+            isRemoteFullRepaint = false;
+            damageAll();
+        }
+        Object o;
+        while ((o = remoteDamages.poll()) != null) {
+            if (o instanceof Controller<?>) {
+                damage((Controller<?>) o);
+            } else {
+                Bounds b = (Bounds) o;
+                damage(b.getX(), b.getY(), b.getWidth(), b.getHeight());
+            }
+        }
+        if (lastLayoutEpoch != window.getLayoutEpoch()) {
+            lastLayoutEpoch = window.getLayoutEpoch();
+            damageAll();
+        }
+        if (!isFullRepaint) {
+            for (int i = 0; i < drawn.size(); i++) {
+                Controller<?> c = drawn.get(i);
+                if (c.isAnimated()) {
+                    damage(c);
+                }
+            }
+        }
+        isFullFrame = isFullRepaint;
+        isFullRepaint = false;
+        if (isFullFrame) {
+            drawn.clear();
+            pool.addAll(pending);
+            pending.clear();
+        }
+        // the damages made while drawing are for the next frame.
+        List<Bounds> swap = regions;
+        regions = pending;
+        pending = swap;
+    }
+
+    /**
+     * draws a tab through its layer.
+     *
+     * @exclude
+     */
+    void draw(Tab theTab, PGraphics theGraphics) {
+        PGraphics layer = layers.get(theTab);
+        boolean isNew = layer == null;
+        if (isNew) {
+            layer = window.papplet().createGraphics(width, height);
+            layers.put(theTab, layer);
+        }
+        if (isFullFrame || isNew) {
+            render(theTab, layer, null);
+            fullRepaints++;
+        } else if (!regions.isEmpty()) {
+            for (int i = 0; i < regions.size(); i++) {
+                render(theTab, layer, regions.get(i));
+            }
+            partialRepaints++;
+        } else {
+            skippedRepaints++;
+        }
+        theGraphics.image(layer, 0, 0);
+    }
+
+    /**
+     * @exclude
+     */
+    void endFrame() {
+        pool.addAll(regions);
+        regions.clear();
+        clip = null;
+    }
+
+    private void render(Tab theTab, PGraphics theLayer, Bounds theRegion) {
+        theLayer.beginDraw();
+        theLayer.rectMode(PConstants.CORNER);
+        theLayer.ellipseMode(PConstants.CORNER);
+        theLayer.imageMode(PConstants.CORNER);
+        theLayer.noStroke();
+        if (theRegion == null) {
+            theLayer.clear();
+        } else {
+            theLayer.clip(theRegion.getX(), theRegion.getY(), theRegion.getWidth(), theRegion.getHeight());
+            theLayer.blendMode(PConstants.REPLACE);
+            theLayer.fill(0, 0);
+            theLayer.rect(theRegion.getX(), theRegion.getY(), theRegion.getWidth(), theRegion.getHeight());
+            theLayer.blendMode(PConstants.BLEND);
+            theLayer.noFill();
+        }
+        clip = theRegion;
+        theTab.draw(theLayer);
+        clip = null;
+        if (theRegion != null) {
+            theLayer.noClip();
+        }
+        theLayer.endDraw();
+    }
+
+    /**
+     * the region drawn again, null when the whole layer is drawn.
+     *
+     * @exclude
+     */
+    public Bounds getClip() {
+        return clip;
+    }
+
+    /**
+     * checks if a controller has to be drawn in the current region.
+     *
+     * @exclude
+     */
+    public boolean isDamaged(ControllerInterface<?> theController) {
+        if (clip == null) {
+            return true;
+        }
+        if (!(theController instanceof Controller<?>)) {
+            // groups draw their children, which are tested one by one.
+            return true;
+        }
+        return paintBounds((Controller<?>) theController, scratch).intersects(clip);
+    }
+
+    /**
+     * @exclude
+     */
+    void drawn(ControllerInterface<?> theController) {
+        if (isFullFrame && theController instanceof Controller<?>) {
+            drawn.add((Controller<?>) theController);
+        }
+    }
+
+    /**
+     * the draw orders are given in the frames drawing the layers entirely.
+     *
+     * @exclude
+     */
+    boolean isStamping() {
+        return isFullFrame;
+    }
+
+    public long getFullRepaints() {
+        return fullRepaints;
+    }
+
+    public long getPartialRepaints() {
+        return partialRepaints;
+    }
+
+    public long getSkippedRepaints() {
+        return skippedRepaints;
+    }
+
+    private static void union(Bounds theTarget, Bounds theOther) {
+        float x0 = Math.min(theTarget.getX(), theOther.getX());
+        float y0 = Math.min(theTarget.getY(), theOther.getY());
+        float x1 = Math.max(theTarget.getX() + theTarget.getWidth(), theOther.getX() + theOther.getWidth());
+        float y1 = Math.max(theTarget.getY() + theTarget.getHeight(), theOther.getY() + theOther.getHeight());
+        theTarget.set(x0, y0, x1 - x0, y1 - y0);
+    }
+}
@@ -0,0 +1,249 @@
+/*
+ *  skatolo is a processing gui library.
+ *
+ * Copyright (C)  2017 by RealityTechSASU
+ * Copyright (C)  2015-2016 by Jeremy Laviole
+ * Copyright (C)  2006-2012 by Andreas Schlegel
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ *
+ *
+ */
+package tech.lity.rea.skatolo.gui;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import tech.lity.rea.skatolo.gui.group.ControllerGroup;
+import tech.lity.rea.skatolo.gui.group.Tab;
+
+/**
+ * A uniform grid over the absolute bounds of the controllers of a
+ * ControlWindow. Used by the window to only visit the controllers below a
+ * pointer instead of walking the whole tree once per pointer.
+ *
+ * Entries are updated through {@link Controller#updateAbsolutePosition()}.
+ * Visibility, open groups and the active tab are checked when querying, so
+ * show/hide, open/close and tab activation do not need to re-index anything.
+ * Coordinates outside of the grid are clamped to the border cells.
+ *
+ * @see ControlWindow#enableSpatialIndex()
+ */
+public class SpatialIndex {
+
+    public static final int DEFAULT_CELL_SIZE = 64;
+
+    private final ControlWindow window;
+    private final int cellSize;
+    private final int cols, rows;
+    private final List<List<Entry>> cells;
+
+    private final Map<Controller<?>, Entry> entries;
+    // controllers which hit area does not follow width and height.
+    private final List<Entry> unbounded;
+    private final List<Controller<?>> result;
+    private int queryCount = 0;
+
+    private static class Entry {
+
+        final Controller<?> controller;
+        final boolean bounded;
+        int minCol, minRow, maxCol, maxRow;
+        boolean inGrid = false;
+        int lastQuery = -1;
+
+        Entry(Controller<?> theController) {
+            controller = theController;
+            bounded = theController.hasIndexableBounds();
+        }
+    }
+
+    /**
+     * @exclude
+     */
+    public SpatialIndex(ControlWindow theWindow, int theWidth, int theHeight, int theCellSize) {
+        window = theWindow;
+        cellSize = Math.max(1, theCellSize);
+        cols = Math.max(1, (theWidth + cellSize - 1) / cellSize);
+        rows = Math.max(1, (theHeight + cellSize - 1) / cellSize);
+        cells = new ArrayList<List<Entry>>(cols * rows);
+        for (int i = 0; i < cols * rows; i++) {
+            cells.add(new ArrayList<Entry>(4));
+        }
+        entries = new IdentityHashMap<Controller<?>, Entry>();
+        unbounded = new ArrayList<Entry>();
+        result = new ArrayList<Controller<?>>();
+    }
+
+    public int getCellSize() {
+        return cellSize;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public boolean contains(Controller<?> theController) {
+        return entries.containsKey(theController);
+    }
+
+    /**
+     * adds a controller or updates its cells after a change of position or
+     * size.
+     */
+    public void update(Controller<?> theController) {
+        Entry e = entries.get(theController);
+        if (e == null) {
+            e = new Entry(theController);
+            entries.put(theController, e);
+            if (!e.bounded) {
+                unbounded.add(e);
+            }
+        }
+        if (!e.bounded) {
+            return;
+        }
+        ControllerInterface<?> parent = theController.getParent();
+        if (parent == null) {
+            removeFromCells(e);
+            return;
+        }
+        Bounds bounds = theController.getAbsoluteBounds();
+        int minCol = col(bounds.getX());
+        int minRow = row(bounds.getY());
+        int maxCol = col(bounds.getX() + bounds.getWidth());
+        int maxRow = row(bounds.getY() + bounds.getHeight());
+        if (e.inGrid && minCol == e.minCol && minRow == e.minRow && maxCol == e.maxCol && maxRow == e.maxRow) {
+            return;
+        }
+        removeFromCells(e);
+        e.minCol = minCol;
+        e.minRow = minRow;
+        e.maxCol = maxCol;
+        e.maxRow = maxRow;
+        for (int r = minRow; r <= maxRow; r++) {
+            for (int c = minCol; c <= maxCol; c++) {
+                cells.get(r * cols + c).add(e);
+            }
+        }
+        e.inGrid = true;
+    }
+
+    public void remove(Controller<?> theController) {
+        Entry e = entries.remove(theController);
+        if (e != null) {
+            removeFromCells(e);
+            unbounded.remove(e);
+        }
+    }
+
+    public void clear() {
+        for (List<Entry> cell : cells) {
+            cell.clear();
+        }
+        entries.clear();
+        unbounded.clear();
+        result.clear();
+    }
+
+    /**
+     * adds all the controllers found below theGroup.
+     */
+    public void addAll(ControllerGroup<?> theGroup) {
+        for (ControllerInterface<?> ci : theGroup.getControllers().get()) {
+            if (ci instanceof Controller<?>) {
+                update((Controller<?>) ci);
+            } else if (ci instanceof ControllerGroup<?>) {
+                addAll((ControllerGroup<?>) ci);
+            }
+        }
+    }
+
+    /**
+     * returns the reachable controllers which cells contain the given
+     * location. The returned list is reused by the next query.
+     */
+    public List<Controller<?>> query(int theX, int theY) {
+        result.clear();
+        queryCount++;
+        if (theX != Pointer.INVALID_LOCATION && theY != Pointer.INVALID_LOCATION) {
+            for (Entry e : cells.get(row(theY) * cols + col(theX))) {
+                collect(e);
+            }
+        }
+        for (Entry e : unbounded) {
+            collect(e);
+        }
+        return result;
+    }
+
+    /**
+     * returns true when a controller would be visited by a tree walk of
+     * {@link ControlWindow#updateEvents()}: all its groups are open and its tab
+     * is the global tab or an active and visible one.
+     */
+    public boolean isReachable(Controller<?> theController) {
+        ControllerInterface<?> parent = theController.getParent();
+        while (parent instanceof ControllerGroup<?>) {
+            if (parent instanceof Tab) {
+                Tab tab = (Tab) parent;
+                return tab == window.getGlobalTab() || (tab.isActive() && tab.isVisible());
+            }
+            if (!((ControllerGroup<?>) parent).isOpen()) {
+                return false;
+            }
+            ControllerInterface<?> next = parent.getParent();
+            if (next == parent) {
+                return false;
+            }
+            parent = next;
+        }
+        return false;
+    }
+
+    private void collect(Entry e) {
+        if (e.lastQuery == queryCount) {
+            return;
+        }
+        e.lastQuery = queryCount;
+        if (e.controller.isVisible() && isReachable(e.controller)) {
+            result.add(e.controller);
+        }
+    }
+
+    private void removeFromCells(Entry e) {
+        if (!e.inGrid) {
+            return;
+        }
+        for (int r = e.minRow; r <= e.maxRow; r++) {
+            for (int c = e.minCol; c <= e.maxCol; c++) {
+                cells.get(r * cols + c).remove(e);
+            }
+        }
+        e.inGrid = false;
+    }
+
+    private int col(float theX) {
+        int c = (int) Math.floor(theX / cellSize);
+        return c < 0 ? 0 : (c >= cols ? cols - 1 : c);
+    }
+
+    private int row(float theY) {
+        int r = (int) Math.floor(theY / cellSize);
+        return r < 0 ? 0 : (r >= rows ? rows - 1 : r);
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ *  skatolo is a processing gui library.
+ *
+ * Copyright (C)  2017 by RealityTechSASU
+ * Copyright (C)  2015-2016 by Jeremy Laviole
+ * Copyright (C)  2006-2012 by Andreas Schlegel
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ *
+ *
+ */
+package tech.lity.rea.skatolo.gui;
+
+import processing.core.PConstants;
+import processing.core.PGraphics;
+
+/**
+ * The pixels of a controller view, kept in an offscreen image. The view is
+ * displayed again only when the fingerprint of the controller changed (see
+ * {@link Controller#getViewFingerprint()}), otherwise the image is drawn.
+ * Animated controllers are never cached.
+ *
+ * @see Controller#enableViewCache()
+ */
+public class ViewCache {
+
+    private final Controller<?> controller;
+    private final Bounds scratch = new Bounds();
+    private PGraphics buffer = null;
+    private long fingerprint = 0;
+    private int offsetX = 0;
+    private int offsetY = 0;
+
+    private long hits = 0;
+    private long misses = 0;
+
+    ViewCache(Controller<?> theController) {
+        controller = theController;
+    }
+
+    /**
+     * draws the controller view from the cache, displays it again in the
+     * cache first when it changed.
+     *
+     * @return false when the view has to be displayed directly.
+     */
+    boolean display(PGraphics theGraphics) {
+        if (controller.isAnimated()) {
+            return false;
+        }
+        Bounds b = controller.getAbsoluteBounds();
+        Bounds paint = RetainedRenderer.paintBounds(controller, scratch);
+        int x = (int) Math.ceil(b.getX() - paint.getX());
+        int y = (int) Math.ceil(b.getY() - paint.getY());
+        int w = (int) Math.ceil(paint.getWidth());
+        int h = (int) Math.ceil(paint.getHeight());
+        if (w <= 0 || h <= 0) {
+            return false;
+        }
+        long f = controller.getViewFingerprint();
+        ControlWindow window = controller.getWindow();
+        if (buffer == null || buffer.width != w || buffer.height != h || x != offsetX || y != offsetY || f != fingerprint) {
+            if (buffer == null || buffer.width != w || buffer.height != h) {
+                buffer = window.papplet().createGraphics(w, h);
+            }
+            offsetX = x;
+            offsetY = y;
+            fingerprint = f;
+            render();
+            misses++;
+            window.countViewCache(false);
+        } else {
+            hits++;
+            window.countViewCache(true);
+        }
+        theGraphics.image(buffer, -offsetX, -offsetY);
+        return true;
+    }
+
+    private void render() {
+        buffer.beginDraw();
+        buffer.clear();
+        buffer.rectMode(PConstants.CORNER);
+        buffer.ellipseMode(PConstants.CORNER);
+        buffer.imageMode(PConstants.CORNER);
+        buffer.noStroke();
+        buffer.translate(offsetX, offsetY);
+        controller.renderView(buffer);
+        buffer.endDraw();
+    }
+
+    /**
+     * displays the view again in the next frame.
+     */
+    public void clear() {
+        buffer = null;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return hits / (hits + misses), 0 before the first draw.
+     */
+    public float getHitRatio() {
+        return hits + misses == 0 ? 0 : (float) hits / (hits + misses);
+    }
+}
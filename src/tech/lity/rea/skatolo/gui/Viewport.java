@@ -0,0 +1,128 @@
+/*
+ *  skatolo is a processing gui library.
+ *
+ * Copyright (C)  2017 by RealityTechSASU
+ * Copyright (C)  2015-2016 by Jeremy Laviole
+ * Copyright (C)  2006-2012 by Andreas Schlegel
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ *
+ *
+ */
+package tech.lity.rea.skatolo.gui;
+
+import java.util.Arrays;
+import processing.core.PGraphics;
+
+/**
+ * Culls the controllers drawn outside the graphics or outside the clip area of
+ * a parent group (see {@link tech.lity.rea.skatolo.gui.group.ControllerGroup#getClipBounds()}). A controller
+ * is tested with its absolute bounds and the room of its labels, groups are
+ * not culled, their children are tested one by one.
+ *
+ * The graphics is expected to be drawn in window coordinates: do not enable
+ * the culling when the window is drawn through a transform.
+ *
+ * @see ControlWindow#enableCulling()
+ */
+public class Viewport {
+
+    private Bounds[] clips = new Bounds[]{new Bounds(), new Bounds()};
+    private int depth = 0;
+    private final Bounds scratch = new Bounds();
+
+    private long culled = 0;
+    private long drawn = 0;
+
+    Viewport() {
+    }
+
+    /**
+     * @exclude
+     */
+    void begin(PGraphics theGraphics) {
+        depth = 0;
+        clips[0].set(0, 0, theGraphics.width, theGraphics.height);
+    }
+
+    /**
+     * restricts the visible area to the clip area of a group, until the
+     * matching pop().
+     *
+     * @exclude
+     * @return false when there is no clip area, pop() must not be called.
+     */
+    public boolean push(Bounds theClip) {
+        if (theClip == null) {
+            return false;
+        }
+        if (depth + 1 == clips.length) {
+            clips = Arrays.copyOf(clips, clips.length * 2);
+            for (int i = depth + 1; i < clips.length; i++) {
+                clips[i] = new Bounds();
+            }
+        }
+        Bounds top = clips[depth];
+        float x0 = Math.max(top.getX(), theClip.getX());
+        float y0 = Math.max(top.getY(), theClip.getY());
+        float x1 = Math.min(top.getX() + top.getWidth(), theClip.getX() + theClip.getWidth());
+        float y1 = Math.min(top.getY() + top.getHeight(), theClip.getY() + theClip.getHeight());
+        clips[++depth].set(x0, y0, Math.max(0, x1 - x0), Math.max(0, y1 - y0));
+        return true;
+    }
+
+    /**
+     * @exclude
+     */
+    public void pop() {
+        if (depth > 0) {
+            depth--;
+        }
+    }
+
+    /**
+     * checks if a controller is inside the visible area.
+     *
+     * @exclude
+     */
+    public boolean isVisible(ControllerInterface<?> theController) {
+        if (!(theController instanceof Controller<?>)) {
+            return true;
+        }
+        Bounds b = RetainedRenderer.paintBounds((Controller<?>) theController, scratch);
+        if (b.intersects(clips[depth])) {
+            drawn++;
+            return true;
+        }
+        culled++;
+        return false;
+    }
+
+    /**
+     * @return the number of controllers not drawn because they were outside
+     * the visible area.
+     */
+    public long getCulledCount() {
+        return culled;
+    }
+
+    /**
+     * @return the number of controllers tested and drawn.
+     */
+    public long getDrawnCount() {
+        return drawn;
+    }
+}
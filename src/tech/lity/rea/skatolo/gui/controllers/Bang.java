@@ -68,6 +68,12 @@ import processing.core.PGraphics;
 	}
 
 
+	@Override protected boolean isAnimated() {
+		// the bang is highlighted for a few frames.
+		return cnt < 0;
+	}
+
+
 	@Override protected void onEnter() {
 		cnt = 0;
 		isActive = true;
@@ -184,6 +190,10 @@ import processing.core.PGraphics;
 			if (cnt < 0) {
 				graphics.fill(color.getForeground());
 				cnt++;
+				if (cnt == 0) {
+					// back to the active color in the next frame.
+					invalidate();
+				}
 			}
 			graphics.rect(0, 0, width, height);
 			if (isLabelVisible) {
@@ -204,6 +214,9 @@ import processing.core.PGraphics;
 			if (cnt < 0) {
 				graphics.image((availableImages[OVER] == true) ? images[OVER] : images[DEFAULT], 0, 0);
 				cnt++;
+				if (cnt == 0) {
+					invalidate();
+				}
 			}
 			if (!isActive && cnt >= 0) {
 				graphics.image(images[DEFAULT], 0, 0);
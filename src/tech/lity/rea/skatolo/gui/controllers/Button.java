@@ -26,6 +26,7 @@ package tech.lity.rea.skatolo.gui.controllers;
 
 import tech.lity.rea.skatolo.Skatolo;
 import tech.lity.rea.skatolo.gui.Controller;
+import tech.lity.rea.skatolo.gui.DrawContext;
 import tech.lity.rea.skatolo.gui.group.ControllerGroup;
 import tech.lity.rea.skatolo.gui.group.Tab;
 import processing.core.PApplet;
@@ -232,6 +233,15 @@ public class Button extends Controller<Button> {
         return isOn;
     }
 
+    /**
+     * @exclude
+     */
+    @Override
+    protected long getViewFingerprint() {
+        long h = super.getViewFingerprint();
+        return 31 * h + ((isOn ? 1 : 0) | (isSwitch ? 2 : 0) | (isPressed ? 4 : 0));
+    }
+
     /**
      * @exclude
      */
@@ -260,26 +270,32 @@ public class Button extends Controller<Button> {
         return this;
     }
 
-    private class ButtonView implements ControllerView<Button> {
+    private class ButtonView implements ContextView<Button> {
 
         public void display(PGraphics graphics, Button theController) {
-            graphics.noStroke();
+            DrawContext context = theController.getWindow().getDrawContext(graphics);
+            display(context, theController);
+            context.flush();
+        }
+
+        public void display(DrawContext context, Button theController) {
+            context.noStroke();
             if (isOn && isSwitch) {
-                graphics.fill(color.getActive());
+                context.fill(color.getActive());
             } else {
                 if (getMouseOver()) {
                     if (isPressed) {
-                        graphics.fill(color.getActive());
+                        context.fill(color.getActive());
                     } else {
-                        graphics.fill(color.getForeground());
+                        context.fill(color.getForeground());
                     }
                 } else {
-                    graphics.fill(color.getBackground());
+                    context.fill(color.getBackground());
                 }
             }
-            graphics.rect(0, 0, width, height);
+            context.rect(0, 0, width, height);
             if (isLabelVisible) {
-                _myCaptionLabel.draw(graphics, 0, 0, theController);
+                context.label(_myCaptionLabel, 0, 0, theController);
             }
         }
     }
@@ -52,6 +52,23 @@ public class Chart extends Controller<Chart> {
 
 	public final static int AREA = 5;
 
+	/**
+	 * the line and area views draw every value.
+	 */
+	public final static int NO_DECIMATION = 0;
+
+	/**
+	 * the line and area views draw the lowest and highest value of each pixel
+	 * column.
+	 */
+	public final static int MIN_MAX = 1;
+
+	/**
+	 * the line and area views draw one value per pixel column, chosen with the
+	 * largest triangle three buckets algorithm.
+	 */
+	public final static int LTTB = 2;
+
 	protected final LinkedHashMap<String, ChartDataSet> _myDataSet;
 
 	protected float resolution = 1;
@@ -62,6 +79,10 @@ public class Chart extends Controller<Chart> {
 
 	protected float _myMax = 1;
 
+	protected int _myDecimation = MIN_MAX;
+
+	protected ChartScrollBuffer _myScrollBuffer;
+
 
 	/**
 	 * Convenience constructor to extend Chart.
@@ -80,6 +101,20 @@ public class Chart extends Controller<Chart> {
 		super(theskatolo, theParent, theName, theX, theY, theWidth, theHeight);
 		setRange(0, theHeight);
 		_myDataSet = new LinkedHashMap<String, ChartDataSet>();
+		// the offered values are pushed even when the chart is hidden.
+		controlWindow.addBackgroundUpdate(this);
+	}
+
+
+	@Override public void remove() {
+		controlWindow.removeBackgroundUpdate(this);
+		super.remove();
+	}
+
+
+	@Override protected boolean isAnimated() {
+		// the data sets change without any event.
+		return true;
 	}
 
 
@@ -123,22 +158,19 @@ public class Chart extends Controller<Chart> {
 
 
 	public Chart addData(float theValue) {
-		ChartData cdi = new ChartData(theValue);
-		getDataSet(getFirstDataSetIndex()).add(cdi);
+		getDataSet(getFirstDataSetIndex()).addLast(theValue);
 		return this;
 	}
 
 
 	public Chart addData(String theSetIndex, float theValue) {
-		ChartData cdi = new ChartData(theValue);
-		getDataSet(theSetIndex).add(cdi);
+		getDataSet(theSetIndex).addLast(theValue);
 		return this;
 	}
 
 
 	public Chart addData(ChartDataSet theChartData, float theValue) {
-		ChartData cdi = new ChartData(theValue);
-		theChartData.add(cdi);
+		theChartData.addLast(theValue);
 		return this;
 	}
 
@@ -162,6 +194,39 @@ public class Chart extends Controller<Chart> {
 	}
 
 
+	/**
+	 * Queues a value to be pushed to a data set, from any thread. The queued
+	 * values are pushed in the update phase of the next frame, also when the
+	 * chart is hidden, in a closed group or in a background tab. The data sets
+	 * must not be added or removed while other threads offer values.
+	 * 
+	 * @see ChartDataSet#offer(float)
+	 * @param theSetIndex
+	 * @param theValue
+	 * @return false when the value is dropped.
+	 */
+	public boolean offer(String theSetIndex, float theValue) {
+		return getDataSet(theSetIndex).offer(theValue);
+	}
+
+
+	public int offer(String theSetIndex, float... theValues) {
+		return getDataSet(theSetIndex).offer(theValues);
+	}
+
+
+	/**
+	 * pushes the values offered by other threads since the last frame.
+	 * 
+	 * @exclude
+	 */
+	@Override protected void backgroundUpdate() {
+		for (ChartDataSet set : _myDataSet.values()) {
+			set.drain(width / resolution);
+		}
+	}
+
+
 	public Chart push(float theValue) {
 		return push(getFirstDataSetIndex(), theValue);
 	}
@@ -181,8 +246,7 @@ public class Chart extends Controller<Chart> {
 
 
 	public Chart addFirst(String theSetIndex, float theValue) {
-		ChartData cdi = new ChartData(theValue);
-		getDataSet(theSetIndex).add(0, cdi);
+		getDataSet(theSetIndex).addFirst(theValue);
 		return this;
 	}
 
@@ -193,8 +257,7 @@ public class Chart extends Controller<Chart> {
 
 
 	public Chart addLast(String theSetIndex, float theValue) {
-		ChartData cdi = new ChartData(theValue);
-		getDataSet(theSetIndex).add(cdi);
+		getDataSet(theSetIndex).addLast(theValue);
 		return this;
 	}
 
@@ -205,7 +268,10 @@ public class Chart extends Controller<Chart> {
 
 
 	public Chart removeLast(String theSetIndex) {
-		return removeData(theSetIndex, getDataSet(theSetIndex).size() - 1);
+		if (getDataSet(theSetIndex).size() > 0) {
+			getDataSet(theSetIndex).removeLast();
+		}
+		return this;
 	}
 
 
@@ -215,7 +281,10 @@ public class Chart extends Controller<Chart> {
 
 
 	public Chart removeFirst(String theSetIndex) {
-		return removeData(theSetIndex, 0);
+		if (getDataSet(theSetIndex).size() > 0) {
+			getDataSet(theSetIndex).removeFirst();
+		}
+		return this;
 	}
 
 
@@ -289,16 +358,21 @@ public class Chart extends Controller<Chart> {
 
 
 	public Chart setData(String theSetIndex, float... theValues) {
-		if (getDataSet().get(theSetIndex).size() != theValues.length) {
-			getDataSet().get(theSetIndex).clear();
+		ChartDataSet set = getDataSet(theSetIndex);
+		if (set.size() != theValues.length) {
+			set.clear();
 			for (int i = 0; i < theValues.length; i++) {
-				getDataSet().get(theSetIndex).add(new ChartData(0));
+				set.addLast(0);
 			}
 		}
 		int n = 0;
-		resolution = (float) width / (getDataSet().get(theSetIndex).size() - 1);
+		resolution = (float) width / (set.size() - 1);
 		for (float f : theValues) {
-			getDataSet().get(theSetIndex).get(n++).setValue(f);
+			// the unchanged values keep their cached geometry.
+			if (set.getValue(n) != f) {
+				set.setValue(n, f);
+			}
+			n++;
 		}
 		return this;
 	}
@@ -384,6 +458,86 @@ public class Chart extends Controller<Chart> {
 	}
 
 
+	/**
+	 * Sets how the line and area views reduce the data sets holding more
+	 * values than the chart has pixel columns: Chart.MIN_MAX (default),
+	 * Chart.LTTB or Chart.NO_DECIMATION. The reduced points are kept per data
+	 * set and updated for the values added or removed at the ends.
+	 * 
+	 * @param theMode
+	 * @return Chart
+	 */
+	public Chart setDecimation(int theMode) {
+		_myDecimation = theMode;
+		return this;
+	}
+
+
+	public int getDecimation() {
+		return _myDecimation;
+	}
+
+
+	/**
+	 * Keeps the pixels of the line and area views in an offscreen image. When
+	 * values are pushed or unshifted, the image is shifted and only the new
+	 * columns are drawn. The chart is drawn entirely when its size, range,
+	 * colors or data sets change, or when it holds more values than pixel
+	 * columns.
+	 * 
+	 * @return Chart
+	 */
+	public Chart enableScrolling() {
+		if (_myScrollBuffer == null) {
+			_myScrollBuffer = new ChartScrollBuffer(this);
+		}
+		return this;
+	}
+
+
+	public Chart disableScrolling() {
+		_myScrollBuffer = null;
+		return this;
+	}
+
+
+	public boolean isScrolling() {
+		return _myScrollBuffer != null;
+	}
+
+
+	/**
+	 * @exclude
+	 */
+	long getScrollFingerprint() {
+		long f = System.identityHashCode(_myControllerView);
+		f = f * 31 + Float.floatToIntBits(_myMin);
+		f = f * 31 + Float.floatToIntBits(_myMax);
+		f = f * 31 + getColor().getBackground();
+		f = f * 31 + _myDecimation;
+		for (ChartDataSet set : getDataSet().values()) {
+			f = f * 31 + System.identityHashCode(set);
+			f = f * 31 + set.getColor(0);
+			f = f * 31 + Float.floatToIntBits(set.getStrokeWeight());
+		}
+		return f;
+	}
+
+
+	/**
+	 * the first and last values drawn between two positions of a view, with a
+	 * value on each side for the segments crossing them.
+	 */
+	private int firstVisible(float theLeft, float theResolution) {
+		return theLeft == -Float.MAX_VALUE ? 0 : Math.max(0, (int) Math.floor(theLeft / theResolution) - 1);
+	}
+
+
+	private int lastVisible(ChartDataSet theSet, float theRight, float theResolution) {
+		return theRight == Float.MAX_VALUE ? theSet.size() - 1 : Math.min(theSet.size() - 1, (int) Math.ceil(theRight / theResolution) + 1);
+	}
+
+
 	/**
 	 * @exclude
 	 */
@@ -423,19 +577,17 @@ public class Chart extends Controller<Chart> {
 			graphics.rect(0, 0, getWidth(), getHeight());
 			graphics.noStroke();
 
-			Iterator<String> it = getDataSet().keySet().iterator();
-			String index = null;
 			float o = 0;
-			while (it.hasNext()) {
-				index = it.next();
-				float s = getDataSet(index).size();
+			int n = getDataSet().size();
+			for (ChartDataSet set : getDataSet().values()) {
+				float s = set.size();
+				float ww = ((width / s));
+				ChartGeometry geometry = set.getGeometry().update(_myMin, _myMax, getHeight());
 				for (int i = 0; i < s; i++) {
-					graphics.fill(getDataSet(index).getColor(i));
-					float ww = ((width / s));
-					float hh = PApplet.map(getDataSet(index).get(i).getValue(), _myMin, _myMax, 0, getHeight());
-					graphics.rect(o + i * ww, getHeight(), (ww / getDataSet().size()), -PApplet.min(getHeight(), PApplet.max(0, hh)));
+					graphics.fill(geometry.getColor(i));
+					graphics.rect(o + i * ww, getHeight(), (ww / n), -PApplet.min(getHeight(), PApplet.max(0, geometry.get(i))));
 				}
-				o += ((width / s)) / getDataSet().size();
+				o += ww / n;
 			}
 			graphics.popStyle();
 		}
@@ -449,24 +601,16 @@ public class Chart extends Controller<Chart> {
 			graphics.rect(0, 0, getWidth(), getHeight());
 			graphics.noStroke();
 
-			Iterator<String> it = getDataSet().keySet().iterator();
-			String index = null;
 			float o = 0;
 			int n = 4;
 			int off = (getDataSet().size() - 1) * n;
-			while (it.hasNext()) {
-				index = it.next();
-				int s = getDataSet(index).size();
-				float step = (float) width / (float) (s);
-				float ww = step - (width % step);
-				ww -= 1;
-				ww = PApplet.max(1, ww);
-
+			for (ChartDataSet set : getDataSet().values()) {
+				int s = set.size();
+				float ww = ((width / s) * 0.5f);
+				ChartGeometry geometry = set.getGeometry().update(_myMin, _myMax, getHeight());
 				for (int i = 0; i < s; i++) {
-					graphics.fill(getDataSet(index).getColor(i));
-					ww = ((width / s) * 0.5f);
-					float hh = PApplet.map(getDataSet(index).get(i).getValue(), _myMin, _myMax, 0, getHeight());
-					graphics.rect(-off / 2 + o + i * ((width / s)) + ww / 2, getHeight(), ww, -PApplet.min(getHeight(), PApplet.max(0, hh)));
+					graphics.fill(geometry.getColor(i));
+					graphics.rect(-off / 2 + o + i * ((width / s)) + ww / 2, getHeight(), ww, -PApplet.min(getHeight(), PApplet.max(0, geometry.get(i))));
 				}
 				o += n;
 			}
@@ -474,9 +618,18 @@ public class Chart extends Controller<Chart> {
 		}
 	}
 
-	public class ChartViewLine implements ControllerView<Chart> {
+	public class ChartViewLine implements ControllerView<Chart>, ChartScrollBuffer.Segments {
 
 		public void display(PGraphics graphics, Chart theController) {
+			if (_myScrollBuffer != null) {
+				_myScrollBuffer.display(graphics, this);
+			} else {
+				display(graphics, -Float.MAX_VALUE, Float.MAX_VALUE);
+			}
+		}
+
+
+		public void display(PGraphics graphics, float theLeft, float theRight) {
 
 			graphics.pushStyle();
 			graphics.fill(getColor().getBackground());
@@ -491,9 +644,18 @@ public class Chart extends Controller<Chart> {
 
 				graphics.beginShape();
 				float res = ((float) getWidth()) / (getDataSet(index).size() - 1);
-				for (int i = 0; i < getDataSet(index).size(); i++) {
-					float hh = PApplet.map(getDataSet(index).get(i).getValue(), _myMin, _myMax, getHeight(), 0);
-					graphics.vertex(i * res, PApplet.min(getHeight(), PApplet.max(0, hh)));
+				if (theLeft == -Float.MAX_VALUE) {
+					ChartDecimator points = getDataSet(index).getDecimator().update(_myDecimation, getWidth());
+					for (int i = 0; i < points.size(); i++) {
+						float hh = PApplet.map(points.getY(i), _myMin, _myMax, getHeight(), 0);
+						graphics.vertex(points.getX(i) * res, PApplet.min(getHeight(), PApplet.max(0, hh)));
+					}
+				} else {
+					int last = lastVisible(getDataSet(index), theRight, res);
+					for (int i = firstVisible(theLeft, res); i <= last; i++) {
+						float hh = PApplet.map(getDataSet(index).getValue(i), _myMin, _myMax, getHeight(), 0);
+						graphics.vertex(i * res, PApplet.min(getHeight(), PApplet.max(0, hh)));
+					}
 				}
 				graphics.endShape();
 			}
@@ -502,9 +664,18 @@ public class Chart extends Controller<Chart> {
 		}
 	}
 
-	public class ChartViewArea implements ControllerView<Chart> {
+	public class ChartViewArea implements ControllerView<Chart>, ChartScrollBuffer.Segments {
 
 		public void display(PGraphics graphics, Chart theController) {
+			if (_myScrollBuffer != null) {
+				_myScrollBuffer.display(graphics, this);
+			} else {
+				display(graphics, -Float.MAX_VALUE, Float.MAX_VALUE);
+			}
+		}
+
+
+		public void display(PGraphics graphics, float theLeft, float theRight) {
 
 			graphics.pushStyle();
 			graphics.fill(getColor().getBackground());
@@ -519,13 +690,25 @@ public class Chart extends Controller<Chart> {
 
 				graphics.fill(getDataSet(index).getColor(0));
 				graphics.beginShape();
-				graphics.vertex(0, getHeight());
-
-				for (int i = 0; i < getDataSet(index).size(); i++) {
-					float hh = PApplet.map(getDataSet(index).get(i).getValue(), _myMin, _myMax, getHeight(), 0);
-					graphics.vertex(i * res, PApplet.min(getHeight(), PApplet.max(0, hh)));
+				if (theLeft == -Float.MAX_VALUE) {
+					graphics.vertex(0, getHeight());
+
+					ChartDecimator points = getDataSet(index).getDecimator().update(_myDecimation, getWidth());
+					for (int i = 0; i < points.size(); i++) {
+						float hh = PApplet.map(points.getY(i), _myMin, _myMax, getHeight(), 0);
+						graphics.vertex(points.getX(i) * res, PApplet.min(getHeight(), PApplet.max(0, hh)));
+					}
+					graphics.vertex(getWidth(), getHeight());
+				} else {
+					int first = firstVisible(theLeft, res);
+					int last = lastVisible(getDataSet(index), theRight, res);
+					graphics.vertex(first * res, getHeight());
+					for (int i = first; i <= last; i++) {
+						float hh = PApplet.map(getDataSet(index).getValue(i), _myMin, _myMax, getHeight(), 0);
+						graphics.vertex(i * res, PApplet.min(getHeight(), PApplet.max(0, hh)));
+					}
+					graphics.vertex(last * res, getHeight());
 				}
-				graphics.vertex(getWidth(), getHeight());
 				graphics.endShape(PApplet.CLOSE);
 			}
 			graphics.noStroke();
@@ -539,26 +722,18 @@ public class Chart extends Controller<Chart> {
 			graphics.pushStyle();
 			graphics.pushMatrix();
 
-			Iterator<String> it = getDataSet().keySet().iterator();
-			String index = null;
-			while (it.hasNext()) {
-				index = it.next();
-				float total = 0;
-				for (int i = 0; i < getDataSet(index).size(); i++) {
-					total += getDataSet(index).get(i).getValue();
-				}
+			// a tiny offset to even out render artifacts when in smooth() mode.
+			float a = PApplet.max(0, PApplet.map(getWidth(), 0, 200, 0.05f, 0.01f));
 
-				float segment = TWO_PI / total;
+			for (ChartDataSet set : getDataSet().values()) {
+				float segment = TWO_PI / set.getSum();
 				float angle = -HALF_PI;
+				ChartGeometry geometry = set.getGeometry().update(_myMin, _myMax, getHeight());
 
 				graphics.noStroke();
-				for (int i = 0; i < getDataSet(index).size(); i++) {
-					graphics.fill(getDataSet(index).getColor(i));
-					float nextAngle = angle + getDataSet(index).get(i).getValue() * segment;
-
-					// a tiny offset to even out render artifacts when in smooth() mode.
-					float a = PApplet.max(0, PApplet.map(getWidth(), 0, 200, 0.05f, 0.01f));
-
+				for (int i = 0; i < set.size(); i++) {
+					graphics.fill(geometry.getColor(i));
+					float nextAngle = angle + set.getValue(i) * segment;
 					graphics.arc(0, 0, getWidth(), getHeight(), angle - a, nextAngle);
 					angle = nextAngle;
 				}
@@ -35,6 +35,9 @@ public class ChartData {
 
 	protected int _myColor;
 
+	// the data set holding this data, told when the value changes.
+	ChartDataSet _mySet;
+
 
 	public ChartData(float theValue) {
 		this(theValue, "");
@@ -49,6 +52,9 @@ public class ChartData {
 
 	public void setValue(float theValue) {
 		_myValue = theValue;
+		if (_mySet != null) {
+			_mySet.invalidate();
+		}
 	}
 
 
@@ -25,16 +25,27 @@
 package tech.lity.rea.skatolo.gui.controllers;
 
 import tech.lity.rea.skatolo.gui.CColor;
-import java.util.ArrayList;
-import java.util.ListIterator;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
 
 import processing.core.PApplet;
 import processing.core.PGraphics;
 
 /**
  * Used by Chart, a chart data set is a container to store chart data.
+ * 
+ * The values are stored in a circular buffer of floats: adding or removing a
+ * value at the beginning or at the end takes constant time and does not
+ * allocate. A ChartData object is only created for the values accessed as
+ * ChartData, with get(), and it stays attached to its value.
  */
-@SuppressWarnings("serial") public class ChartDataSet extends ArrayList<ChartData> {
+public class ChartDataSet extends AbstractList<ChartData> implements RandomAccess {
+
+	/**
+	 * the number of values other threads can offer between two frames.
+	 */
+	public final static int DEFAULT_INGEST_CAPACITY = 1 << 16;
 
 	protected CColor _myColor;
 
@@ -44,6 +55,53 @@ import processing.core.PGraphics;
 
 	protected final String _myName;
 
+	private float[] values = new float[16];
+
+	// the ChartData of the values accessed as objects, null for the others.
+	private ChartData[] items = new ChartData[16];
+
+	private int head = 0;
+
+	private int count = 0;
+
+	// the absolute index of the first value, and the range of absolute
+	// indices used so far: the values keep their index while the set scrolls.
+	private long offset = 0;
+
+	private long minStart = 0;
+
+	private long maxEnd = 0;
+
+	private int epoch = 0;
+
+	private long version = 0;
+
+	private ChartDecimator decimator;
+
+	private ChartGeometry geometry;
+
+	// the sum and the extremes of the values, updated as values are added or
+	// removed at the ends, computed again after the other changes.
+	private double sum = 0;
+
+	private boolean isSumValid = true;
+
+	// updates of the sum since it was computed, to compute it again before
+	// the float error piles up.
+	private int sumUpdates = 0;
+
+	private static final int SUM_REBUILD_INTERVAL = 1 << 16;
+
+	private float min;
+
+	private float max;
+
+	private boolean isExtremaValid = false;
+
+	private int ingestCapacity = DEFAULT_INGEST_CAPACITY;
+
+	private volatile ChartIngestQueue ingest;
+
 
 	public ChartDataSet(String theName) {
 		_myName = theName;
@@ -92,12 +150,441 @@ import processing.core.PGraphics;
 	}
 
 
+	@Override public int size() {
+		return count;
+	}
+
+
+	private int slot(int theIndex) {
+		int i = head + theIndex;
+		return i >= values.length ? i - values.length : i;
+	}
+
+
+	private void checkIndex(int theIndex, int theSize) {
+		if (theIndex < 0 || theIndex >= theSize) {
+			throw new IndexOutOfBoundsException("Index: " + theIndex + ", Size: " + count);
+		}
+	}
+
+
+	private void grow() {
+		if (count < values.length) {
+			return;
+		}
+		float[] v = new float[values.length * 2];
+		ChartData[] d = new ChartData[values.length * 2];
+		for (int i = 0; i < count; i++) {
+			v[i] = values[slot(i)];
+			d[i] = items[slot(i)];
+		}
+		values = v;
+		items = d;
+		head = 0;
+	}
+
+
+	/**
+	 * @return the value at an index, without creating a ChartData.
+	 */
+	public float getValue(int theIndex) {
+		checkIndex(theIndex, count);
+		int i = slot(theIndex);
+		return items[i] == null ? values[i] : items[i].getValue();
+	}
+
+
+	public ChartDataSet setValue(int theIndex, float theValue) {
+		checkIndex(theIndex, count);
+		int i = slot(theIndex);
+		disaggregate(getValue(theIndex));
+		aggregate(theValue);
+		values[i] = theValue;
+		if (items[i] != null) {
+			items[i]._myValue = theValue;
+		}
+		epoch++;
+		version++;
+		return this;
+	}
+
+
+	/**
+	 * the number of changes made to the set, to find out if something drawn
+	 * from the values is still valid.
+	 */
+	public long getVersion() {
+		return version;
+	}
+
+
+	/**
+	 * the absolute index of the first value. Adding or removing a value at an
+	 * end keeps the index of the others, the index changes with the epoch.
+	 */
+	long getOffset() {
+		return offset;
+	}
+
+
+	/**
+	 * changes when the values are not only added or removed at the ends.
+	 */
+	int getEpoch() {
+		return epoch;
+	}
+
+
+	void invalidate() {
+		isSumValid = false;
+		isExtremaValid = false;
+		epoch++;
+		version++;
+	}
+
+
+	private void aggregate(float theValue) {
+		if (!Float.isFinite(theValue)) {
+			// a NaN or an infinity can not be taken out of the sum later.
+			isSumValid = false;
+			isExtremaValid = false;
+			return;
+		}
+		sum += theValue;
+		if (isExtremaValid) {
+			min = Math.min(min, theValue);
+			max = Math.max(max, theValue);
+		}
+		sumUpdated();
+	}
+
+
+	private void disaggregate(float theValue) {
+		if (!Float.isFinite(theValue)) {
+			isSumValid = false;
+			isExtremaValid = false;
+			return;
+		}
+		sum -= theValue;
+		if (isExtremaValid && (theValue <= min || theValue >= max)) {
+			isExtremaValid = false;
+		}
+		sumUpdated();
+	}
+
+
+	private void sumUpdated() {
+		if (++sumUpdates > Math.max(count, SUM_REBUILD_INTERVAL)) {
+			isSumValid = false;
+		}
+	}
+
+
+	/**
+	 * @return the sum of the values.
+	 */
+	public float getSum() {
+		if (!isSumValid) {
+			sum = 0;
+			for (int i = 0; i < count; i++) {
+				sum += getValue(i);
+			}
+			sumUpdates = 0;
+			isSumValid = true;
+		}
+		return (float) sum;
+	}
+
+
+	/**
+	 * @return the lowest value, 0 when the set is empty.
+	 */
+	public float getMin() {
+		extrema();
+		return min;
+	}
+
+
+	/**
+	 * @return the highest value, 0 when the set is empty.
+	 */
+	public float getMax() {
+		extrema();
+		return max;
+	}
+
+
+	private void extrema() {
+		if (isExtremaValid) {
+			return;
+		}
+		min = count == 0 ? 0 : Float.MAX_VALUE;
+		max = count == 0 ? 0 : -Float.MAX_VALUE;
+		for (int i = 0; i < count; i++) {
+			float v = getValue(i);
+			min = Math.min(min, v);
+			max = Math.max(max, v);
+		}
+		// an empty set is computed again once it has values.
+		isExtremaValid = count > 0;
+	}
+
+
+	ChartGeometry getGeometry() {
+		if (geometry == null) {
+			geometry = new ChartGeometry(this);
+		}
+		return geometry;
+	}
+
+
+	/**
+	 * Queues a value to be pushed to the set, from any thread. The chart adds
+	 * the queued values in the update phase of the next frame, so its views
+	 * see the same values during a frame. The values are pushed whether the
+	 * chart is visible or not, but only while the window is updated: when the
+	 * sketch stops drawing, the queue fills up. Offering does not lock: if the
+	 * queue is full the value is dropped, see {@link #getDropped()}.
+	 * 
+	 * @param theValue
+	 * @return false when the value is dropped.
+	 */
+	public boolean offer(float theValue) {
+		return ingest().offer(theValue);
+	}
+
+
+	/**
+	 * Queues values to be pushed to the set, from any thread.
+	 * 
+	 * @return the number of values queued, the others are dropped.
+	 */
+	public int offer(float... theValues) {
+		return ingest().offer(theValues, 0, theValues.length);
+	}
+
+
+	public int offer(float[] theValues, int theOffset, int theLength) {
+		return ingest().offer(theValues, theOffset, theLength);
+	}
+
+
+	/**
+	 * Sets the number of values other threads can offer between two frames,
+	 * to call before the first value is offered.
+	 */
+	public ChartDataSet setIngestCapacity(int theCapacity) {
+		ingestCapacity = theCapacity;
+		return this;
+	}
+
+
+	public int getIngestCapacity() {
+		return ingest == null ? ingestCapacity : ingest.capacity();
+	}
+
+
+	/**
+	 * @return the number of offered values dropped because the queue was full.
+	 */
+	public long getDropped() {
+		return ingest == null ? 0 : ingest.getDropped();
+	}
+
+
+	/**
+	 * @return the number of offered values pushed to the set so far.
+	 */
+	public long getIngested() {
+		return ingest == null ? 0 : ingest.getDrained();
+	}
+
+
+	private ChartIngestQueue ingest() {
+		ChartIngestQueue q = ingest;
+		if (q == null) {
+			synchronized (this) {
+				if (ingest == null) {
+					ingest = new ChartIngestQueue(ingestCapacity);
+				}
+				q = ingest;
+			}
+		}
+		return q;
+	}
+
+
+	/**
+	 * pushes the offered values, keeping at most theMaxSize + 1 values.
+	 * 
+	 * @return the number of values pushed.
+	 */
+	int drain(float theMaxSize) {
+		ChartIngestQueue q = ingest;
+		return q == null ? 0 : q.drain(this, theMaxSize);
+	}
+
+
+	ChartDecimator getDecimator() {
+		if (decimator == null) {
+			decimator = new ChartDecimator(this);
+		}
+		return decimator;
+	}
+
+
+	public ChartDataSet addFirst(float theValue) {
+		grow();
+		head = head == 0 ? values.length - 1 : head - 1;
+		values[head] = theValue;
+		items[head] = null;
+		aggregate(theValue);
+		count++;
+		modCount++;
+		version++;
+		offset--;
+		if (offset < minStart) {
+			minStart = offset;
+		} else {
+			// an index removed before is used again.
+			epoch++;
+		}
+		return this;
+	}
+
+
+	public ChartDataSet addLast(float theValue) {
+		grow();
+		int i = slot(count);
+		values[i] = theValue;
+		items[i] = null;
+		aggregate(theValue);
+		count++;
+		modCount++;
+		version++;
+		if (offset + count > maxEnd) {
+			maxEnd = offset + count;
+		} else {
+			epoch++;
+		}
+		return this;
+	}
+
+
+	public float removeFirst() {
+		float v = getValue(0);
+		disaggregate(v);
+		items[head] = null;
+		head = slot(1);
+		count--;
+		modCount++;
+		version++;
+		offset++;
+		return v;
+	}
+
+
+	public float removeLast() {
+		float v = getValue(count - 1);
+		disaggregate(v);
+		items[slot(count - 1)] = null;
+		count--;
+		modCount++;
+		version++;
+		return v;
+	}
+
+
+	/**
+	 * @return the ChartData of a value, created on first access.
+	 */
+	@Override public ChartData get(int theIndex) {
+		checkIndex(theIndex, count);
+		int i = slot(theIndex);
+		if (items[i] == null) {
+			items[i] = new ChartData(values[i]);
+			items[i]._mySet = this;
+		}
+		return items[i];
+	}
+
+
+	@Override public ChartData set(int theIndex, ChartData theItem) {
+		ChartData old = get(theIndex);
+		int i = slot(theIndex);
+		items[i] = theItem;
+		values[i] = theItem.getValue();
+		theItem._mySet = this;
+		invalidate();
+		return old;
+	}
+
+
+	@Override public void add(int theIndex, ChartData theItem) {
+		checkIndex(theIndex, count + 1);
+		theItem._mySet = this;
+		if (theIndex == 0) {
+			addFirst(theItem.getValue());
+			items[head] = theItem;
+			return;
+		}
+		addLast(theItem.getValue());
+		int last = slot(count - 1);
+		items[last] = theItem;
+		if (theIndex == count - 1) {
+			return;
+		}
+		invalidate();
+		// values after the index move one slot towards the end.
+		for (int n = count - 1; n > theIndex; n--) {
+			int to = slot(n);
+			int from = slot(n - 1);
+			values[to] = values[from];
+			items[to] = items[from];
+		}
+		values[slot(theIndex)] = theItem.getValue();
+		items[slot(theIndex)] = theItem;
+	}
+
+
+	@Override public ChartData remove(int theIndex) {
+		ChartData old = get(theIndex);
+		if (theIndex == 0) {
+			removeFirst();
+		} else {
+			for (int n = theIndex; n < count - 1; n++) {
+				int to = slot(n);
+				int from = slot(n + 1);
+				values[to] = values[from];
+				items[to] = items[from];
+			}
+			if (theIndex < count - 1) {
+				invalidate();
+			}
+			removeLast();
+		}
+		return old;
+	}
+
+
+	@Override public void clear() {
+		Arrays.fill(items, null);
+		head = 0;
+		count = 0;
+		modCount++;
+		offset = maxEnd;
+		minStart = maxEnd;
+		invalidate();
+		sum = 0;
+		sumUpdates = 0;
+		isSumValid = true;
+	}
+
+
 	public float[] getValues() {
-		float[] v = new float[size()];
-		int n = 0;
-		ListIterator<ChartData> litr = listIterator();
-		while (litr.hasNext()) {
-			v[n++] = litr.next().getValue();
+		float[] v = new float[count];
+		for (int i = 0; i < count; i++) {
+			v[i] = getValue(i);
 		}
 		return v;
 	}
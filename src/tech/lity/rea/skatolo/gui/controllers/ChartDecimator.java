@@ -0,0 +1,363 @@
+/* 
+ *  skatolo is a processing gui library.
+ * 
+ * Copyright (C)  2017 by RealityTechSASU
+ * Copyright (C)  2015-2016 by Jeremy Laviole
+ * Copyright (C)  2006-2012 by Andreas Schlegel
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ * 
+ * 
+ */
+package tech.lity.rea.skatolo.gui.controllers;
+
+import java.util.Arrays;
+
+/**
+ * Reduces a chart data set to a number of points bounded by the width of a
+ * chart, for the line and area views. The values are grouped in buckets of
+ * consecutive absolute indices, so the buckets stay the same while the set
+ * scrolls: only the buckets at the ends are computed again when values are
+ * added or removed.
+ * 
+ * @see Chart#setDecimation(int)
+ */
+class ChartDecimator {
+
+	private final ChartDataSet set;
+
+	private int mode = -1;
+
+	private int columns = 0;
+
+	private long bucketSize = 0;
+
+	private int epoch = -1;
+
+	private long version = -1;
+
+	// the buckets, in a ring indexed by bucket number.
+	private long[] key = new long[0];
+
+	private long[] from;
+
+	private long[] to;
+
+	private float[] min;
+
+	private float[] max;
+
+	private long[] minAt;
+
+	private long[] maxAt;
+
+	private double[] sum;
+
+	// largest triangle three buckets: the point kept in a bucket, and the
+	// ranges of the previous and next buckets it was chosen with.
+	private long[] selected;
+
+	private long[] selectedPreviousFrom;
+
+	private long[] selectedPreviousTo;
+
+	private long[] selectedNextFrom;
+
+	private long[] selectedNextTo;
+
+	private float[] x = new float[0];
+
+	private float[] y = new float[0];
+
+	private int size = 0;
+
+	private long first;
+
+	private long lastEmitted;
+
+	private long samplesRead = 0;
+
+
+	ChartDecimator(ChartDataSet theSet) {
+		set = theSet;
+	}
+
+
+	/**
+	 * decimates the values of the set for a chart of a number of columns, the
+	 * result is kept until the set changes.
+	 */
+	ChartDecimator update(int theMode, int theColumns) {
+		theColumns = Math.max(1, theColumns);
+		if (theMode == mode && theColumns == columns && set.getVersion() == version) {
+			return this;
+		}
+		int n = set.size();
+		first = set.getOffset();
+		size = 0;
+		lastEmitted = Long.MIN_VALUE;
+		long b;
+		if (theMode == Chart.MIN_MAX && n > 2 * theColumns) {
+			b = (n + theColumns - 1) / theColumns;
+		} else if (theMode == Chart.LTTB && n > theColumns + 2) {
+			b = (n - 2 + theColumns - 1) / theColumns;
+		} else {
+			b = 0;
+		}
+		if (theMode != mode || theColumns != columns || b != bucketSize || set.getEpoch() != epoch) {
+			reset(theColumns + 2);
+		}
+		mode = theMode;
+		columns = theColumns;
+		bucketSize = b;
+		epoch = set.getEpoch();
+		version = set.getVersion();
+		if (b == 0) {
+			capacity(n);
+			for (int i = 0; i < n; i++) {
+				emit(first + i, set.getValue(i));
+			}
+		} else if (mode == Chart.MIN_MAX) {
+			minMax(n);
+		} else {
+			largestTriangles(n);
+		}
+		return this;
+	}
+
+
+	private void reset(int theCapacity) {
+		if (key.length != theCapacity) {
+			key = new long[theCapacity];
+			from = new long[theCapacity];
+			to = new long[theCapacity];
+			min = new float[theCapacity];
+			max = new float[theCapacity];
+			minAt = new long[theCapacity];
+			maxAt = new long[theCapacity];
+			sum = new double[theCapacity];
+			selected = new long[theCapacity];
+			selectedPreviousFrom = new long[theCapacity];
+			selectedPreviousTo = new long[theCapacity];
+			selectedNextFrom = new long[theCapacity];
+			selectedNextTo = new long[theCapacity];
+		}
+		Arrays.fill(key, Long.MIN_VALUE);
+	}
+
+
+	private void minMax(int theSize) {
+		long last = first + theSize - 1;
+		long k0 = Math.floorDiv(first, bucketSize);
+		long k1 = Math.floorDiv(last, bucketSize);
+		capacity((int) (k1 - k0 + 1) * 2 + 2);
+		emit(first, set.getValue(0));
+		for (long k = k0; k <= k1; k++) {
+			int s = bucket(k, Math.max(first, k * bucketSize), Math.min(last, k * bucketSize + bucketSize - 1));
+			if (minAt[s] < maxAt[s]) {
+				emit(minAt[s], min[s]);
+				emit(maxAt[s], max[s]);
+			} else {
+				emit(maxAt[s], max[s]);
+				emit(minAt[s], min[s]);
+			}
+		}
+		emit(last, set.getValue(theSize - 1));
+	}
+
+
+	/**
+	 * a local form of the largest triangle three buckets algorithm: the point
+	 * kept in a bucket makes the largest triangle with the averages of the
+	 * previous and next buckets, instead of the point kept in the previous
+	 * bucket. A bucket is chosen again only when it or a neighbour changed,
+	 * so a new value does not go through the whole series.
+	 */
+	private void largestTriangles(int theSize) {
+		long last = first + theSize - 1;
+		long k0 = Math.floorDiv(first + 1, bucketSize);
+		long k1 = Math.floorDiv(last - 1, bucketSize);
+		capacity((int) (k1 - k0 + 1) + 2);
+		emit(first, set.getValue(0));
+		long previousFrom = first;
+		long previousTo = first;
+		int previous = -1;
+		int s = bucket(k0, first + 1, Math.min(last - 1, k0 * bucketSize + bucketSize - 1));
+		for (long k = k0; k <= k1; k++) {
+			long nextFrom = last;
+			long nextTo = last;
+			int next = -1;
+			if (k < k1) {
+				nextFrom = (k + 1) * bucketSize;
+				nextTo = Math.min(last - 1, nextFrom + bucketSize - 1);
+				next = bucket(k + 1, nextFrom, nextTo);
+			}
+			if (selectedPreviousFrom[s] != previousFrom || selectedPreviousTo[s] != previousTo || selectedNextFrom[s] != nextFrom || selectedNextTo[s] != nextTo) {
+				select(s, (previousFrom + previousTo) * 0.5, previous < 0 ? set.getValue(0) : average(previous), (nextFrom + nextTo) * 0.5, next < 0 ? set.getValue(theSize - 1) : average(next));
+				selectedPreviousFrom[s] = previousFrom;
+				selectedPreviousTo[s] = previousTo;
+				selectedNextFrom[s] = nextFrom;
+				selectedNextTo[s] = nextTo;
+			}
+			emit(selected[s], value(selected[s]));
+			previousFrom = from[s];
+			previousTo = to[s];
+			previous = s;
+			s = next;
+		}
+		emit(last, set.getValue(theSize - 1));
+	}
+
+
+	private void select(int theSlot, double thePreviousX, double thePreviousY, double theNextX, double theNextY) {
+		double ax = thePreviousX - first;
+		double cx = theNextX - first;
+		double area = -1;
+		for (long i = from[theSlot]; i <= to[theSlot]; i++) {
+			double bx = i - first;
+			double by = value(i);
+			double a = Math.abs((ax - cx) * (by - thePreviousY) - (ax - bx) * (theNextY - thePreviousY));
+			if (a > area) {
+				area = a;
+				selected[theSlot] = i;
+			}
+		}
+		samplesRead += to[theSlot] - from[theSlot] + 1;
+	}
+
+
+	private double average(int theSlot) {
+		if (Double.isNaN(sum[theSlot])) {
+			double total = 0;
+			for (long i = from[theSlot]; i <= to[theSlot]; i++) {
+				total += value(i);
+			}
+			sum[theSlot] = total;
+			samplesRead += to[theSlot] - from[theSlot] + 1;
+		}
+		return sum[theSlot] / (to[theSlot] - from[theSlot] + 1);
+	}
+
+
+	/**
+	 * @return the slot of a bucket, updated if its range changed.
+	 */
+	private int bucket(long theKey, long theFrom, long theTo) {
+		int s = (int) Math.floorMod(theKey, (long) key.length);
+		if (key[s] == theKey && from[s] == theFrom && to[s] == theTo) {
+			return s;
+		}
+		selectedPreviousFrom[s] = Long.MIN_VALUE;
+		if (key[s] == theKey && theFrom >= from[s] && theFrom <= to[s] && theTo >= to[s] && minAt[s] >= theFrom && maxAt[s] >= theFrom) {
+			// the values removed at the beginning are not the lowest or the
+			// highest, only the new values at the end are read.
+			if (theFrom > from[s]) {
+				sum[s] = Double.NaN;
+			}
+			long end = to[s];
+			from[s] = theFrom;
+			to[s] = theTo;
+			scan(s, end + 1, theTo);
+			return s;
+		}
+		key[s] = theKey;
+		from[s] = theFrom;
+		to[s] = theTo;
+		min[s] = Float.MAX_VALUE;
+		max[s] = -Float.MAX_VALUE;
+		sum[s] = 0;
+		scan(s, theFrom, theTo);
+		return s;
+	}
+
+
+	private void scan(int theSlot, long theFrom, long theTo) {
+		float lo = min[theSlot];
+		float hi = max[theSlot];
+		double total = 0;
+		for (long i = theFrom; i <= theTo; i++) {
+			float v = value(i);
+			if (v < lo) {
+				lo = v;
+				minAt[theSlot] = i;
+			}
+			if (v > hi) {
+				hi = v;
+				maxAt[theSlot] = i;
+			}
+			total += v;
+		}
+		min[theSlot] = lo;
+		max[theSlot] = hi;
+		sum[theSlot] += total;
+		samplesRead += Math.max(0, theTo - theFrom + 1);
+	}
+
+
+	private float value(long theIndex) {
+		return set.getValue((int) (theIndex - first));
+	}
+
+
+	private void capacity(int theSize) {
+		if (x.length < theSize) {
+			x = new float[theSize];
+			y = new float[theSize];
+		}
+	}
+
+
+	private void emit(long theIndex, float theValue) {
+		if (theIndex <= lastEmitted) {
+			return;
+		}
+		lastEmitted = theIndex;
+		x[size] = theIndex - first;
+		y[size] = theValue;
+		size++;
+	}
+
+
+	/**
+	 * @return the number of points.
+	 */
+	int size() {
+		return size;
+	}
+
+
+	/**
+	 * @return the index of a point in the data set.
+	 */
+	float getX(int theIndex) {
+		return x[theIndex];
+	}
+
+
+	float getY(int theIndex) {
+		return y[theIndex];
+	}
+
+
+	/**
+	 * @return the number of values read to compute the buckets, for
+	 *         benchmarks.
+	 */
+	long getSamplesRead() {
+		return samplesRead;
+	}
+
+}
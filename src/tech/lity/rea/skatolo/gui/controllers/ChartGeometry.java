@@ -0,0 +1,141 @@
+/* 
+ *  skatolo is a processing gui library.
+ * 
+ * Copyright (C)  2017 by RealityTechSASU
+ * Copyright (C)  2015-2016 by Jeremy Laviole
+ * Copyright (C)  2006-2012 by Andreas Schlegel
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ * 
+ * 
+ */
+package tech.lity.rea.skatolo.gui.controllers;
+
+import processing.core.PApplet;
+
+/**
+ * The values of a chart data set projected to the height of the bar views,
+ * and their colors, kept between frames. The projections are kept by absolute
+ * index, like the decimation, so only the values added since the last frame
+ * are projected while the set scrolls.
+ */
+class ChartGeometry {
+
+	private final ChartDataSet set;
+
+	// the projections, in a ring indexed by absolute index.
+	private float[] projected = new float[0];
+
+	private long from = 0;
+
+	private long to = 0;
+
+	private int epoch = -1;
+
+	private float rangeMin;
+
+	private float rangeMax;
+
+	private float length;
+
+	// the colors, by position in the set.
+	private int[] colors = new int[0];
+
+	private int colorsSize = -1;
+
+	private int[] colorsSource;
+
+	private int colorsForeground;
+
+
+	ChartGeometry(ChartDataSet theSet) {
+		set = theSet;
+	}
+
+
+	/**
+	 * projects the values of the set from a range to a length, only the ones
+	 * not projected yet with the same range.
+	 */
+	ChartGeometry update(float theMin, float theMax, float theLength) {
+		int n = set.size();
+		long first = set.getOffset();
+		long last = first + n;
+		if (projected.length < n || epoch != set.getEpoch() || theMin != rangeMin || theMax != rangeMax || theLength != length) {
+			if (projected.length < n) {
+				projected = new float[Integer.highestOneBit(Math.max(1, n - 1)) << 1];
+			}
+			epoch = set.getEpoch();
+			rangeMin = theMin;
+			rangeMax = theMax;
+			length = theLength;
+			from = first;
+			to = first;
+		}
+		from = Math.max(from, first);
+		to = Math.min(to, last);
+		if (to <= from) {
+			from = first;
+			to = first;
+		}
+		for (long i = first; i < from; i++) {
+			project(i - first, i);
+		}
+		for (long i = to; i < last; i++) {
+			project(i - first, i);
+		}
+		from = first;
+		to = last;
+		updateColors(n);
+		return this;
+	}
+
+
+	private void project(long theIndex, long theAbsoluteIndex) {
+		projected[(int) Math.floorMod(theAbsoluteIndex, (long) projected.length)] = PApplet.map(set.getValue((int) theIndex), rangeMin, rangeMax, 0, length);
+	}
+
+
+	private void updateColors(int theSize) {
+		int foreground = set.getColor().getForeground();
+		if (theSize == colorsSize && set.getColors() == colorsSource && foreground == colorsForeground) {
+			return;
+		}
+		if (colors.length < theSize) {
+			colors = new int[theSize];
+		}
+		for (int i = 0; i < theSize; i++) {
+			colors[i] = set.getColor(i);
+		}
+		colorsSize = theSize;
+		colorsSource = set.getColors();
+		colorsForeground = foreground;
+	}
+
+
+	/**
+	 * @return the projection of the value at an index.
+	 */
+	float get(int theIndex) {
+		return projected[(int) Math.floorMod(set.getOffset() + theIndex, (long) projected.length)];
+	}
+
+
+	int getColor(int theIndex) {
+		return colors[theIndex];
+	}
+
+}
@@ -0,0 +1,150 @@
+/* 
+ *  skatolo is a processing gui library.
+ * 
+ * Copyright (C)  2017 by RealityTechSASU
+ * Copyright (C)  2015-2016 by Jeremy Laviole
+ * Copyright (C)  2006-2012 by Andreas Schlegel
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ * 
+ * 
+ */
+package tech.lity.rea.skatolo.gui.controllers;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The values offered to a chart data set by other threads, until the
+ * animation thread adds them. Any number of threads can offer values without
+ * locking: a producer claims slots by moving the tail, writes its values and
+ * publishes each slot with its sequence number. The values offered when the
+ * queue is full are dropped.
+ * 
+ * @see ChartDataSet#offer(float)
+ */
+class ChartIngestQueue {
+
+	private final int mask;
+
+	private final float[] values;
+
+	// the position a slot was published for, plus one.
+	private final AtomicLongArray published;
+
+	private final AtomicLong tail = new AtomicLong();
+
+	private final AtomicLong dropped = new AtomicLong();
+
+	// written by the consumer only.
+	private volatile long head = 0;
+
+
+	ChartIngestQueue(int theCapacity) {
+		int capacity = Integer.highestOneBit(Math.max(2, theCapacity - 1)) << 1;
+		mask = capacity - 1;
+		values = new float[capacity];
+		published = new AtomicLongArray(capacity);
+	}
+
+
+	/**
+	 * @return the number of values queued, the others are dropped.
+	 */
+	int offer(float[] theValues, int theOffset, int theLength) {
+		long t;
+		int n;
+		do {
+			t = tail.get();
+			n = (int) Math.min(theLength, values.length - (t - head));
+			if (n <= 0) {
+				dropped.addAndGet(theLength);
+				return 0;
+			}
+		} while (!tail.compareAndSet(t, t + n));
+		for (int i = 0; i < n; i++) {
+			int slot = (int) (t + i) & mask;
+			values[slot] = theValues[theOffset + i];
+			published.lazySet(slot, t + i + 1);
+		}
+		if (n < theLength) {
+			dropped.addAndGet(theLength - n);
+		}
+		return n;
+	}
+
+
+	boolean offer(float theValue) {
+		long t;
+		do {
+			t = tail.get();
+			if (t - head >= values.length) {
+				dropped.incrementAndGet();
+				return false;
+			}
+		} while (!tail.compareAndSet(t, t + 1));
+		int slot = (int) t & mask;
+		values[slot] = theValue;
+		published.lazySet(slot, t + 1);
+		return true;
+	}
+
+
+	/**
+	 * adds the values published when the call starts to a data set, in the
+	 * order of their slots, as Chart.push does.
+	 * 
+	 * @return the number of values added.
+	 */
+	int drain(ChartDataSet theSet, float theMaxSize) {
+		long h = head;
+		long end = tail.get();
+		while (h < end) {
+			int slot = (int) h & mask;
+			if (published.get(slot) != h + 1) {
+				// a producer claimed the slot but did not write it yet.
+				break;
+			}
+			if (theSet.size() > theMaxSize) {
+				theSet.removeFirst();
+			}
+			theSet.addLast(values[slot]);
+			h++;
+		}
+		int n = (int) (h - head);
+		head = h;
+		return n;
+	}
+
+
+	int capacity() {
+		return values.length;
+	}
+
+
+	/**
+	 * @return the number of values added to the data set so far.
+	 */
+	long getDrained() {
+		return head;
+	}
+
+
+	long getDropped() {
+		return dropped.get();
+	}
+
+}
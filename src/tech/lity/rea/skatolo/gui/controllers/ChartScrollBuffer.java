@@ -0,0 +1,248 @@
+/* 
+ *  skatolo is a processing gui library.
+ * 
+ * Copyright (C)  2017 by RealityTechSASU
+ * Copyright (C)  2015-2016 by Jeremy Laviole
+ * Copyright (C)  2006-2012 by Andreas Schlegel
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ * 
+ * 
+ */
+package tech.lity.rea.skatolo.gui.controllers;
+
+import java.util.Iterator;
+
+import processing.core.PConstants;
+import processing.core.PGraphics;
+
+/**
+ * The pixels of a scrolling chart, kept in an offscreen image. When the data
+ * sets only scrolled since the last frame, the image is shifted by the number
+ * of new values and only the columns at the ends are drawn again. The chart
+ * is drawn entirely when its size, range, colors or data sets changed.
+ * 
+ * @see Chart#enableScrolling()
+ */
+class ChartScrollBuffer {
+
+	/**
+	 * a chart view able to draw the part of the chart between two columns.
+	 */
+	interface Segments {
+
+		void display(PGraphics theGraphics, float theLeft, float theRight);
+
+	}
+
+	private final Chart chart;
+
+	// the image and the one the next frame is drawn into.
+	private PGraphics buffer;
+
+	private PGraphics back;
+
+	// room around the chart for the strokes drawn over its edges.
+	private int margin;
+
+	private long fingerprint;
+
+	private ChartDataSet[] sets = new ChartDataSet[0];
+
+	private long[] offsets = new long[0];
+
+	private long[] versions = new long[0];
+
+	private int[] epochs = new int[0];
+
+	private int[] sizes = new int[0];
+
+	private long fullRepaints = 0;
+
+	private long partialRepaints = 0;
+
+	private long skippedRepaints = 0;
+
+
+	ChartScrollBuffer(Chart theChart) {
+		chart = theChart;
+	}
+
+
+	void display(PGraphics theGraphics, Segments theView) {
+		int w = chart.getWidth();
+		int h = chart.getHeight();
+		int m = (int) Math.ceil(5 * chart.getStrokeWeight()) + 2;
+		for (ChartDataSet set : chart.getDataSet().values()) {
+			m = Math.max(m, (int) Math.ceil(5 * set.getStrokeWeight()) + 2);
+		}
+		boolean isFull = false;
+		if (buffer == null || buffer.width != w + 2 * m || buffer.height != h + 2 * m) {
+			margin = m;
+			buffer = chart.getWindow().papplet().createGraphics(w + 2 * margin, h + 2 * margin);
+			back = chart.getWindow().papplet().createGraphics(w + 2 * margin, h + 2 * margin);
+			isFull = true;
+		}
+		long f = chart.getScrollFingerprint();
+		if (f != fingerprint) {
+			fingerprint = f;
+			isFull = true;
+		}
+		float shift = isFull ? 0 : shift(w);
+		if (isFull || Float.isNaN(shift)) {
+			render(buffer, theView, null, 0, 0);
+			fullRepaints++;
+		} else if (shift == 0) {
+			skippedRepaints++;
+		} else {
+			// the columns scrolled in, and the ones where the first and last
+			// values were drawn before.
+			float a = shift > 0 ? w - shift - margin : -margin;
+			float b = shift > 0 ? w + margin : -shift + margin;
+			render(back, theView, buffer, shift, 0);
+			render(back, theView, null, a, b);
+			render(back, theView, null, shift > 0 ? -margin : w - margin, shift > 0 ? margin : w + margin);
+			PGraphics swap = buffer;
+			buffer = back;
+			back = swap;
+			partialRepaints++;
+		}
+		store();
+		theGraphics.image(buffer, -margin, -margin);
+	}
+
+
+	/**
+	 * @return the number of pixels the data sets scrolled to the left since the
+	 *         last frame, NaN when the chart has to be drawn entirely.
+	 */
+	private float shift(int theWidth) {
+		if (chart.getDataSet().size() != sets.length) {
+			return Float.NaN;
+		}
+		Iterator<ChartDataSet> it = chart.getDataSet().values().iterator();
+		long d = 0;
+		boolean isChanged = false;
+		for (int i = 0; i < sets.length; i++) {
+			ChartDataSet set = it.next();
+			if (set != sets[i] || set.getEpoch() != epochs[i] || set.size() != sizes[i] || set.size() != sizes[0]) {
+				return Float.NaN;
+			}
+			if (i > 0 && set.getOffset() - offsets[i] != d) {
+				return Float.NaN;
+			}
+			d = set.getOffset() - offsets[i];
+			isChanged |= set.getVersion() != versions[i];
+		}
+		if (sets.length == 0 || !isChanged) {
+			return 0;
+		}
+		// every value has its own column, the decimation keeps them all.
+		if (d == 0 || sizes[0] < 2 || sizes[0] - 1 > theWidth) {
+			return Float.NaN;
+		}
+		float s = d * (float) theWidth / (sizes[0] - 1);
+		if (Math.abs(s) >= theWidth || Math.abs(s - Math.round(s)) > 0.001f) {
+			return Float.NaN;
+		}
+		return Math.round(s);
+	}
+
+
+	private void store() {
+		int n = chart.getDataSet().size();
+		if (sets.length != n) {
+			sets = new ChartDataSet[n];
+			offsets = new long[n];
+			versions = new long[n];
+			epochs = new int[n];
+			sizes = new int[n];
+		}
+		int i = 0;
+		for (ChartDataSet set : chart.getDataSet().values()) {
+			sets[i] = set;
+			offsets[i] = set.getOffset();
+			versions[i] = set.getVersion();
+			epochs[i] = set.getEpoch();
+			sizes[i] = set.size();
+			i++;
+		}
+	}
+
+
+	/**
+	 * draws the view, or the previous image shifted, in the columns between
+	 * two positions; entirely when theSource is null and the positions are
+	 * equal.
+	 */
+	private void render(PGraphics theTarget, Segments theView, PGraphics theSource, float theLeft, float theRight) {
+		theTarget.beginDraw();
+		theTarget.rectMode(PConstants.CORNER);
+		theTarget.ellipseMode(PConstants.CORNER);
+		theTarget.imageMode(PConstants.CORNER);
+		theTarget.noStroke();
+		if (theSource != null) {
+			theTarget.clear();
+			// the source is also drawn in the window, which may have used its
+			// changes already.
+			theSource.setModified();
+			theTarget.blendMode(PConstants.REPLACE);
+			theTarget.image(theSource, -theLeft, 0);
+			theTarget.blendMode(PConstants.BLEND);
+		} else if (theLeft == theRight) {
+			theTarget.clear();
+			theTarget.translate(margin, margin);
+			theView.display(theTarget, -Float.MAX_VALUE, Float.MAX_VALUE);
+		} else {
+			int x0 = Math.max(0, (int) Math.floor(theLeft + margin));
+			int x1 = Math.min(theTarget.width, (int) Math.ceil(theRight + margin));
+			theTarget.clip(x0, 0, x1 - x0, theTarget.height);
+			theTarget.blendMode(PConstants.REPLACE);
+			theTarget.fill(0, 0);
+			theTarget.rect(x0, 0, x1 - x0, theTarget.height);
+			theTarget.blendMode(PConstants.BLEND);
+			theTarget.translate(margin, margin);
+			// the vertices on each side, for the joins reaching into the columns.
+			theView.display(theTarget, x0 - 2 * margin, x1);
+			theTarget.noClip();
+		}
+		theTarget.endDraw();
+	}
+
+
+	/**
+	 * draws the chart entirely in the next frame.
+	 */
+	void clear() {
+		buffer = null;
+	}
+
+
+	long getFullRepaints() {
+		return fullRepaints;
+	}
+
+
+	long getPartialRepaints() {
+		return partialRepaints;
+	}
+
+
+	long getSkippedRepaints() {
+		return skippedRepaints;
+	}
+
+}
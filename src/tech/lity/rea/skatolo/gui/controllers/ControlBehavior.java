@@ -80,6 +80,9 @@ public abstract class ControlBehavior {
 	 */
 	public void setActive(boolean theFlag) {
 		isActive = theFlag;
+		if (isActive && _myController != null && _myController.getWindow() != null) {
+			_myController.getWindow().requestEventPass();
+		}
 	}
 
 	/**
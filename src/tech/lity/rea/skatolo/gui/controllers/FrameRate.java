@@ -43,6 +43,11 @@ public class FrameRate extends Textlabel {
 	}
 
 
+	@Override protected boolean isAnimated() {
+		return true;
+	}
+
+
 	public FrameRate setInterval(int theValue) {
 		_myInterval = theValue;
 		return this;
@@ -109,6 +109,7 @@ public class HoverKnob extends Controller<HoverKnob> {
         _myDiameter = _myRadius * 2;
         width = (int) _myDiameter;
         height = (int) _myDiameter;
+        updateAbsolutePosition();
         return this;
     }
 
@@ -116,6 +117,12 @@ public class HoverKnob extends Controller<HoverKnob> {
         return _myRadius;
     }
 
+    @Override
+    protected void drawPickingShape(PGraphics theGraphics) {
+        theGraphics.ellipseMode(PApplet.CORNER);
+        theGraphics.ellipse(0, 0, getRadius() * 2, getRadius() * 2);
+    }
+
     /**
      * The start angle is a value between 0 and TWO_PI. By default the start
      * angle is set to HALF_PI + PI * 0.25f
@@ -299,8 +306,8 @@ public class HoverKnob extends Controller<HoverKnob> {
 
     public void updateValue() {
 
-        float x = _myParent.getAbsolutePosition().x + position.x + _myRadius;
-        float y = _myParent.getAbsolutePosition().y + position.y + _myRadius;
+        float x = _myParent.getAbsoluteBounds().getX() + position.x + _myRadius;
+        float y = _myParent.getAbsoluteBounds().getY() + position.y + _myRadius;
 
         if (PApplet.dist(x, y, controlWindow.getPointerX(), controlWindow.getPointerY()) < _myRadius) {
             if (PApplet.dist(x, y, controlWindow.getPointerX(), controlWindow.getPointerY()) > (_myRadius * 0.6)) {
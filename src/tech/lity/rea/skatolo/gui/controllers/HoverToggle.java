@@ -89,7 +89,7 @@ public class HoverToggle extends Controller<HoverToggle> {
     public void draw(PGraphics graphics) {
         graphics.pushMatrix();
         graphics.translate(position.x, position.y);
-        _myControllerView.display(graphics, this);
+        displayView(graphics);
         graphics.popMatrix();
     }
 
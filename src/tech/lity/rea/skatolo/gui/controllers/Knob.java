@@ -128,6 +128,7 @@ public class Knob extends Controller<Knob> {
 		_myDiameter = _myRadius * 2;
 		width = (int) _myDiameter;
 		height = (int) _myDiameter;
+		updateAbsolutePosition();
 		return this;
 	}
 
@@ -136,6 +137,12 @@ public class Knob extends Controller<Knob> {
 		return _myRadius;
 	}
 
+	@Override
+	protected void drawPickingShape(PGraphics theGraphics) {
+		theGraphics.ellipseMode(PApplet.CORNER);
+		theGraphics.ellipse(0, 0, getRadius() * 2, getRadius() * 2);
+	}
+
 
 	/**
 	 * The start angle is a value between 0 and TWO_PI. By default the start angle is set to HALF_PI
@@ -337,8 +344,8 @@ public class Knob extends Controller<Knob> {
 	 * @exclude {@inheritDoc}
 	 */
 	@Override public void mousePressed() {
-		float x = _myParent.getAbsolutePosition().x + position.x + _myRadius;
-		float y = _myParent.getAbsolutePosition().y + position.y + _myRadius;
+		float x = _myParent.getAbsoluteBounds().getX() + position.x + _myRadius;
+		float y = _myParent.getAbsoluteBounds().getY() + position.y + _myRadius;
 		if (PApplet.dist(x, y, controlWindow.getPointerX(), controlWindow.getPointerY()) < _myRadius) {
 			isActive = true;
 			if (PApplet.dist(x, y, controlWindow.getPointerX(), controlWindow.getPointerY()) > (_myRadius * 0.6)) {
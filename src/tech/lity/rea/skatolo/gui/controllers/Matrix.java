@@ -29,6 +29,7 @@ import tech.lity.rea.skatolo.gui.Controller;
 import tech.lity.rea.skatolo.gui.group.ControllerGroup;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.Arrays;
 
 import processing.core.PApplet;
 import processing.core.PGraphics;
@@ -172,6 +173,7 @@ public class Matrix extends Controller<Matrix> {
 					}
 					currentX = tX;
 					currentY = tY;
+					invalidate();
 				}
 			}
 		}
@@ -212,6 +214,11 @@ public class Matrix extends Controller<Matrix> {
 		return this;
 	}
 
+	@Override protected boolean isAnimated() {
+		// the playhead moves and the hovered cell follows the pointer.
+		return playing || isPointerOver();
+	}
+
 	public Matrix play() {
 		playing = true;
 		return this;
@@ -229,6 +236,7 @@ public class Matrix extends Controller<Matrix> {
 	public Matrix stop() {
 		playing = false;
 		cnt = 0;
+		invalidate();
 		return this;
 	}
 
@@ -294,6 +302,7 @@ public class Matrix extends Controller<Matrix> {
 	 */
 	public Matrix set(int theX, int theY, boolean theValue) {
 		_myCells[theX][theY] = (theValue == true) ? 1 : 0;
+		invalidate();
 		return this;
 	}
 
@@ -307,6 +316,7 @@ public class Matrix extends Controller<Matrix> {
 				_myCells[x][y] = 0;
 			}
 		}
+		invalidate();
 		return this;
 	}
 
@@ -329,6 +339,7 @@ public class Matrix extends Controller<Matrix> {
 	public Matrix setCells(int[][] theCells) {
 		setGrid(theCells.length, theCells[0].length);
 		_myCells = theCells;
+		invalidate();
 		return this;
 	}
 
@@ -408,6 +419,35 @@ public class Matrix extends Controller<Matrix> {
 		return this;
 	}
 
+	/**
+	 * the index of the cell under the pointer (x + y * cellX), or -1.
+	 */
+	private int getHoveredCell() {
+		if (!isPointerOver()) {
+			return -1;
+		}
+		// TODO: getMouseX() & getMouseY() here ? Why ?!
+		int x = (int) ((getWindow().getPointerX() - position.x) / stepX);
+		int y = (int) ((getWindow().getPointerY() - position.y) / stepY);
+		if (x >= 0 && x < _myCellX && y >= 0 && y < _myCellY) {
+			return x + y * _myCellX;
+		}
+		return -1;
+	}
+
+	/**
+	 * @exclude
+	 */
+	@Override protected long getViewFingerprint() {
+		long h = super.getViewFingerprint();
+		h = 31 * h + Arrays.deepHashCode(_myCells);
+		h = 31 * h + cnt;
+		h = 31 * h + getHoveredCell();
+		h = 31 * h + bg;
+		h = 31 * h + (gapX << 16 | gapY);
+		return h;
+	}
+
 	class MatrixView implements ControllerView<Matrix> {
 
 		public void display(PGraphics graphics, Matrix theController) {
@@ -426,15 +466,12 @@ public class Matrix extends Controller<Matrix> {
 					}
 				}
 			}
-			if (isPointerOver()) {
-                            
-                            // TODO: getMouseX() & getMouseY() here ? Why ?!
-                            int x = (int) ((getWindow().getPointerX() - position.x) / stepX);
-                            int y = (int) ((getWindow().getPointerY() - position.y) / stepY);
-                            if (x >= 0 && x < _myCellX && y >= 0 && y < _myCellY) {
-					graphics.fill(_myCells[x][y] == 1 ? color.getActive() : color.getForeground());
-					graphics.rect(x * stepX, y * stepY, stepX - gapX, stepY - gapY);
-                            }
+			int hovered = getHoveredCell();
+			if (hovered >= 0) {
+				int x = hovered % _myCellX;
+				int y = hovered / _myCellX;
+				graphics.fill(_myCells[x][y] == 1 ? color.getActive() : color.getForeground());
+				graphics.rect(x * stepX, y * stepY, stepX - gapX, stepY - gapY);
 			}
 			graphics.fill(color.getActive());
 			graphics.rect(cnt * stepX, 0, 1, height - gapY);
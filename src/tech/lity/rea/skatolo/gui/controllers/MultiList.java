@@ -139,6 +139,7 @@ public class MultiList extends Controller<MultiList> implements MultiListInterfa
 	public void updateLocation(float theX, float theY) {
 		position.x += theX;
 		position.y += theY;
+		updateAbsolutePosition();
 		updateRect(position.x, position.y, width, _myDefaultButtonHeight);
 		for (int i = 0; i < getSubelements().size(); i++) {
 			((MultiListInterface) getSubelements().get(i)).updateLocation(theX, theY);
@@ -119,6 +119,7 @@ public class MultiListButton extends Button implements MultiListInterface {
 	public void updateLocation(float theX, float theY) {
 		position.x += theX;
 		position.y += theY;
+		updateAbsolutePosition();
 		updateRect(position.x, position.y, width, height);
 		for (int i = 0; i < getSubelements().size(); i++) {
 			((MultiListInterface) getSubelements().get(i)).updateLocation(theX, theY);
@@ -148,6 +149,7 @@ public class MultiListButton extends Button implements MultiListInterface {
 	public MultiListButton setHeight(int theHeight) {
 		int difHeight = height;
 		height = theHeight;
+		updateAbsolutePosition();
 		difHeight = height - difHeight;
 		int myYoffset = 0;
 		for (int i = 0; i < parent.getSubelements().size(); i++) {
@@ -206,8 +206,8 @@ public class Range extends Controller<Range> {
     @Override
     public void mousePressed() {
 
-        final float posX = _myParent.getAbsolutePosition().x + position.x;
-        final float posY = _myParent.getAbsolutePosition().y + position.y;
+        final float posX = _myParent.getAbsoluteBounds().getX() + position.x;
+        final float posY = _myParent.getAbsoluteBounds().getY() + position.y;
 
         if (controlWindow.getPointerY() < posY || controlWindow.getPointerY() > posY + getHeight()) {
             mode = -1;
@@ -302,12 +302,14 @@ public class Range extends Controller<Range> {
     @Override
     public Range setWidth(int theValue) {
         width = theValue;
+        updateAbsolutePosition();
         return this;
     }
 
     @Override
     public Range setHeight(int theValue) {
         height = theValue;
+        updateAbsolutePosition();
         return this;
     }
 
@@ -438,6 +440,52 @@ public class Range extends Controller<Range> {
         return this;
     }
 
+    /**
+     * the handle dragged, else the handle under the pointer, or -1.
+     */
+    private int getHighlightedHandle() {
+        int high = mode;
+
+        final float posX = _myParent.getAbsoluteBounds().getX() + position.x;
+        int x0 = (int) (posX + minHandle);
+        int x1 = (int) (posX + maxHandle);
+
+        if (isPointerOver() && high < 0) {
+            if (controlWindow.getPointerX() >= x0 - handleSize && controlWindow.getPointerX() < x0) {
+                high = LEFT;
+            } else if (controlWindow.getPointerX() >= x1 && controlWindow.getPointerX() < x1 + handleSize) {
+                high = RIGHT;
+            } else if (controlWindow.getPointerX() > x0 && controlWindow.getPointerX() < x1 && isDraggable) {
+                high = CENTER;
+            }
+        }
+        return high;
+    }
+
+    /**
+     * @exclude
+     */
+    @Override
+    protected long getViewFingerprint() {
+        long h = super.getViewFingerprint();
+        h = 31 * h + getHighlightedHandle();
+        h = 31 * h + minHandle;
+        h = 31 * h + maxHandle;
+        h = 31 * h + handleSize;
+        h = 31 * h + ((isMinHandle ? 1 : 0) | (isMaxHandle ? 2 : 0) | (isShowTickMarks ? 4 : 0));
+        h = 31 * h + labelFingerprint(_myHighValueLabel);
+        return h;
+    }
+
+    /**
+     * @exclude
+     */
+    @Override
+    protected boolean isAnimated() {
+        // the handle under the pointer is highlighted.
+        return isPointerOver();
+    }
+
     class RangeSpriteView implements ControllerView<Range> {
 
         public void display(PGraphics graphics, Range theController) {
@@ -449,21 +497,7 @@ public class Range extends Controller<Range> {
 
         public void display(PGraphics graphics, Range theController) {
 
-            int high = mode;
-
-            final float posX = _myParent.getAbsolutePosition().x + position.x;
-            int x0 = (int) (posX + minHandle);
-            int x1 = (int) (posX + maxHandle);
-
-            if (isPointerOver() && high < 0) {
-                if (controlWindow.getPointerX() >= x0 - handleSize && controlWindow.getPointerX() < x0) {
-                    high = LEFT;
-                } else if (controlWindow.getPointerX() >= x1 && controlWindow.getPointerX() < x1 + handleSize) {
-                    high = RIGHT;
-                } else if (controlWindow.getPointerX() > x0 && controlWindow.getPointerX() < x1 && isDraggable) {
-                    high = CENTER;
-                }
-            }
+            int high = getHighlightedHandle();
 
             graphics.pushMatrix();
 
@@ -363,6 +363,7 @@ public class Slider extends Controller<Slider> {
 	 */
 	@Override public Slider setWidth(int theValue) {
 		width = theValue;
+		updateAbsolutePosition();
 		setSliderMode(_mySliderMode);
 		return this;
 	}
@@ -374,6 +375,7 @@ public class Slider extends Controller<Slider> {
 	 */
 	@Override public Slider setHeight(int theValue) {
 		height = theValue;
+		updateAbsolutePosition();
 		setSliderMode(_mySliderMode);
 		return this;
 	}
@@ -546,12 +548,12 @@ public class Slider extends Controller<Slider> {
 		}
 
 		void update() {
-			float f = _myMin + (-(controlWindow.getPointerY() - (_myParent.getAbsolutePosition().y + position.y) - height)) * _myUnit;
+			float f = _myMin + (-(controlWindow.getPointerY() - (_myParent.getAbsoluteBounds().getY() + position.y) - height)) * _myUnit;
 			setValue(PApplet.map(f, 0, 1, _myMinReal, _myMaxReal));
 		}
 
 		void updateInternalEvents(PApplet theApplet) {
-			float f = _myMin + (-(controlWindow.getPointerY() - (_myParent.getAbsolutePosition().y + position.y) - height)) * _myUnit;
+			float f = _myMin + (-(controlWindow.getPointerY() - (_myParent.getAbsoluteBounds().getY() + position.y) - height)) * _myUnit;
 			setValue(PApplet.map(f, 0, 1, _myMinReal, _myMaxReal));
 		}
 
@@ -614,12 +616,12 @@ public class Slider extends Controller<Slider> {
 		}
 
 		void update() {
-			float f = _myMin + (controlWindow.getPointerX()- (_myParent.getAbsolutePosition().x + position.x)) * _myUnit;
+			float f = _myMin + (controlWindow.getPointerX()- (_myParent.getAbsoluteBounds().getX() + position.x)) * _myUnit;
 			setValue(PApplet.map(f, 0, 1, _myMinReal, _myMaxReal));
 		}
 
 		void updateInternalEvents(PApplet theApplet) {
-			float f = _myMin + (controlWindow.getPointerX() - (_myParent.getAbsolutePosition().x + position.x)) * _myUnit;
+			float f = _myMin + (controlWindow.getPointerX() - (_myParent.getAbsoluteBounds().getX() + position.x)) * _myUnit;
 			setValue(PApplet.map(f, 0, 1, _myMinReal, _myMaxReal));
 		}
 
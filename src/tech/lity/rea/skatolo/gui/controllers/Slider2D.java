@@ -85,8 +85,8 @@ public class Slider2D extends Controller<Slider2D> {
 	 public Slider2D updateInternalEvents(PApplet theApplet) {
 		if (isPointerOver()) {
 			if (!skatolo.isAltDown()) {
-				float tX = PApplet.constrain(controlWindow.getPointerX() - (_myParent.getAbsolutePosition().x + position.x), 0, width - cursorWidth);
-				float tY = PApplet.constrain(controlWindow.getPointerY() - (_myParent.getAbsolutePosition().y + position.y), 0, height - cursorHeight);
+				float tX = PApplet.constrain(controlWindow.getPointerX() - (_myParent.getAbsoluteBounds().getX() + position.x), 0, width - cursorWidth);
+				float tY = PApplet.constrain(controlWindow.getPointerY() - (_myParent.getAbsoluteBounds().getY() + position.y), 0, height - cursorHeight);
 				if (isMousePressed()) {
 					cursorX = tX;
 					cursorY = tY;
@@ -26,6 +26,7 @@ package tech.lity.rea.skatolo.gui.controllers;
 
 import tech.lity.rea.skatolo.ControlFont;
 import tech.lity.rea.skatolo.Skatolo;
+import tech.lity.rea.skatolo.TextMetrics;
 import tech.lity.rea.skatolo.gui.Controller;
 import tech.lity.rea.skatolo.gui.group.ControllerGroup;
 import tech.lity.rea.skatolo.gui.Label;
@@ -203,6 +204,12 @@ public class Textfield extends Controller<Textfield> {
             return isTexfieldActive;
     }
 
+    @Override
+    protected boolean isAnimated() {
+        // the text and the cursor change while typing.
+        return isTexfieldActive;
+    }
+
     public Textfield keepFocus(boolean theValue) {
             isKeepFocus = theValue;
             if (isKeepFocus) {
@@ -382,11 +389,12 @@ public class Textfield extends Controller<Textfield> {
                                     graphics);
                     len = getWidth();
             } else {
+                    TextMetrics metrics = _myValueLabel.getFont().getMetrics();
                     char[] c = str.toCharArray();
                     int mx = 0;
                     int n = 0;
                     for (int i = 0; i < c.length; i++) {
-                            n += graphics.textWidth(c[i]);
+                            n += metrics.charWidth(graphics, c[i]);
                             if (n > _myValueLabel.getWidth() - off) {
                                     break;
                             }
@@ -401,7 +409,7 @@ public class Textfield extends Controller<Textfield> {
                     // needs fixing. TODO
                     for (int i = PApplet.max(mx, _myTextBufferIndex - 1); i >= 0; i--) {
                             try {
-                                    n += graphics.textWidth(c[i]);
+                                    n += metrics.charWidth(graphics, c[i]);
                             } catch (Exception e) {
                             }
                             t1 = c[i] + t1;
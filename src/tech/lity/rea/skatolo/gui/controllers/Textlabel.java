@@ -27,6 +27,7 @@ package tech.lity.rea.skatolo.gui.controllers;
 import tech.lity.rea.skatolo.Hacks;
 import tech.lity.rea.skatolo.ControlFont;
 import tech.lity.rea.skatolo.Skatolo;
+import tech.lity.rea.skatolo.gui.Bounds;
 import tech.lity.rea.skatolo.gui.Controller;
 import tech.lity.rea.skatolo.gui.Label;
 import tech.lity.rea.skatolo.gui.group.Tab;
@@ -152,11 +153,16 @@ public class Textlabel extends Controller<Textlabel> {
         if (!disabled) {
             graphics.pushMatrix();
             graphics.translate(position.x, position.y);
-            _myValueLabel.draw(graphics, 0, 0, this);
+            displayView(graphics);
             graphics.popMatrix();
         }
     }
 
+    @Override
+    protected void renderView(PGraphics graphics) {
+        _myValueLabel.draw(graphics, 0, 0, this);
+    }
+
     public void draw() {
         if (skatolo.pgraphics == null) {
             draw(skatolo.getPApplet().g);
@@ -261,11 +267,17 @@ public class Textlabel extends Controller<Textlabel> {
         return this;
     }
 
+    @Override
+    protected boolean hasIndexableBounds() {
+        return false;
+    }
+
     protected boolean computeIsInside() {
-        return (controlWindow.getPointerX() > position.x + _myParent.getAbsolutePosition().x
-                && controlWindow.getPointerX() < position.x + _myParent.getAbsolutePosition().x + _myValueLabel.getWidth()
-                && controlWindow.getPointerY() > position.y + _myParent.getAbsolutePosition().y && controlWindow.getPointerY() < position.y
-                + _myParent.getAbsolutePosition().y + _myValueLabel.getHeight());
+        Bounds parent = _myParent.getAbsoluteBounds();
+        return (controlWindow.getPointerX() > position.x + parent.getX()
+                && controlWindow.getPointerX() < position.x + parent.getX() + _myValueLabel.getWidth()
+                && controlWindow.getPointerY() > position.y + parent.getY() && controlWindow.getPointerY() < position.y
+                + parent.getY() + _myValueLabel.getHeight());
     }
 
     public Label get() {
@@ -26,6 +26,7 @@ package tech.lity.rea.skatolo.gui.controllers;
 
 import tech.lity.rea.skatolo.Skatolo;
 import tech.lity.rea.skatolo.gui.Controller;
+import tech.lity.rea.skatolo.gui.DrawContext;
 import tech.lity.rea.skatolo.gui.Label;
 import tech.lity.rea.skatolo.gui.group.Tab;
 import processing.core.PApplet;
@@ -84,18 +85,6 @@ public class Toggle extends Controller<Toggle> {
 	}
 
 
-	/**
-	 * 
-	 * @param graphics PApplet
-	 */
-	public void draw(PGraphics graphics) {
-		graphics.pushMatrix();
-		graphics.translate(position.x, position.y);
-		_myControllerView.display(graphics, this);
-		graphics.popMatrix();
-	}
-
-
 	protected void onEnter() {
 		isActive = true;
 	}
@@ -253,18 +242,24 @@ public class Toggle extends Controller<Toggle> {
 	}
 
 
-	class ToggleView implements ControllerView<Toggle> {
+	class ToggleView implements ContextView<Toggle> {
 
 		public void display(PGraphics graphics, Toggle theController) {
+			DrawContext context = theController.getWindow().getDrawContext(graphics);
+			display(context, theController);
+			context.flush();
+		}
+
+		public void display(DrawContext context, Toggle theController) {
 			if (isActive) {
-				graphics.fill(isOn ? color.getActive() : color.getForeground());
+				context.fill(isOn ? color.getActive() : color.getForeground());
 			}
 			else {
-				graphics.fill(isOn ? color.getActive() : color.getBackground());
+				context.fill(isOn ? color.getActive() : color.getBackground());
 			}
-			graphics.rect(0, 0, width, height);
+			context.rect(0, 0, width, height);
 			if (isLabelVisible) {
-				_myCaptionLabel.draw(graphics, 0, 0, theController);
+				context.label(_myCaptionLabel, 0, 0, theController);
 			}
 		}
 	}
@@ -287,20 +282,26 @@ public class Toggle extends Controller<Toggle> {
 		}
 	}
 
-	class ToggleSwitchView implements ControllerView<Toggle> {
+	class ToggleSwitchView implements ContextView<Toggle> {
 
 		public void display(PGraphics graphics, Toggle theController) {
-			graphics.fill(color.getBackground());
-			graphics.rect(0, 0, width, height);
-			graphics.fill(color.getActive());
+			DrawContext context = theController.getWindow().getDrawContext(graphics);
+			display(context, theController);
+			context.flush();
+		}
+
+		public void display(DrawContext context, Toggle theController) {
+			context.fill(color.getBackground());
+			context.rect(0, 0, width, height);
+			context.fill(color.getActive());
 			if (isOn) {
-				graphics.rect(0, 0, width / 2, height);
+				context.rect(0, 0, width / 2, height);
 			}
 			else {
-				graphics.rect((width % 2 == 0 ? 0 : 1) + width / 2, 0, width / 2, height);
+				context.rect((width % 2 == 0 ? 0 : 1) + width / 2, 0, width / 2, height);
 			}
 			if (isLabelVisible) {
-				_myCaptionLabel.draw(graphics, 0, 0, theController);
+				context.label(_myCaptionLabel, 0, 0, theController);
 			}
 		}
 	}
@@ -460,6 +460,7 @@ public class CheckBox extends ControlGroup<CheckBox> {
 			Toggle t = _myRadioToggles.get(i);
 			t.position.y = yy;
 			t.position.x = xx;
+			t.updateAbsolutePosition();
 
 			xx += t.width + spacingColumn;
 			nn++;
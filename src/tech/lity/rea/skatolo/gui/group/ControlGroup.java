@@ -82,7 +82,7 @@ public class ControlGroup<T> extends ControllerGroup<T> implements ControlListen
 	public void mousePressed() {
 		if (isBarVisible && isCollapse) {
 			if (!skatolo.isAltDown()) {
-				isOpen = !isOpen;
+				setOpen(!isOpen);
 				if (isEventActive) {
 					final ControlEvent myEvent = new ControlEvent(this);
 					skatolo.getControlBroadcaster().broadcast(myEvent, SkatoloConstants.METHOD);
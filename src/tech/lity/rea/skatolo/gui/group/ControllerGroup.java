@@ -24,6 +24,7 @@
  */
 package tech.lity.rea.skatolo.gui.group;
 
+import tech.lity.rea.skatolo.gui.Bounds;
 import tech.lity.rea.skatolo.gui.CColor;
 import tech.lity.rea.skatolo.gui.CDrawable;
 import tech.lity.rea.skatolo.Hacks;
@@ -34,6 +35,8 @@ import tech.lity.rea.skatolo.events.ControlListener;
 import tech.lity.rea.skatolo.Skatolo;
 import tech.lity.rea.skatolo.SkatoloConstants;
 import tech.lity.rea.skatolo.gui.ControlWindow;
+import tech.lity.rea.skatolo.gui.RetainedRenderer;
+import tech.lity.rea.skatolo.gui.Viewport;
 import tech.lity.rea.skatolo.gui.Controller;
 import tech.lity.rea.skatolo.gui.ControllerInterface;
 import tech.lity.rea.skatolo.gui.ControllerList;
@@ -42,7 +45,10 @@ import tech.lity.rea.skatolo.gui.Label;
 import tech.lity.rea.skatolo.gui.Pointer;
 import tech.lity.rea.skatolo.gui.controllers.Button;
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 import processing.core.PApplet;
 import processing.core.PGraphics;
@@ -68,8 +74,10 @@ public abstract class ControllerGroup<T> implements ControllerInterface<T>, Skat
     protected PVector position;
     protected PVector positionBuffer;
     protected PVector absolutePosition;
+    private Bounds absoluteBounds;
 
-//    protected ControlWindow controlWindow;
+    // the window of a tab, the other groups use the window of their tab.
+    ControlWindow tabWindow;
     private final CColor color = new CColor();
 
     protected Pointer currentPointer = Pointer.invalidPointer;
@@ -79,6 +87,16 @@ public abstract class ControllerGroup<T> implements ControllerInterface<T>, Skat
     // only applies to the area of the title bar of a group
     protected boolean isInside = false;
 
+    // single pass dispatch: the state of each pointer on the group.
+    private Map<Pointer, PointerState> pointerStates;
+
+    private static class PointerState {
+
+        boolean isInside;
+        boolean isMousePressed;
+        boolean mouseover;
+    }
+
     // applies to the area including controllers, currently only supported for listbox
     protected boolean isArrowVisible = true;
     protected boolean isInsideGroup = false;
@@ -110,6 +128,7 @@ public abstract class ControllerGroup<T> implements ControllerInterface<T>, Skat
     protected boolean isCollapse = true;
 
     protected int _myPickingColor = 0x6600ffff;
+    protected int drawOrder = 0;
 
     public PVector autoPosition = new PVector(10, 30, 0);
 
@@ -197,6 +216,10 @@ public abstract class ControllerGroup<T> implements ControllerInterface<T>, Skat
 
         positionBuffer = new PVector(position.x, position.y);
 
+        for (int i = 0; i < controllers.size(); i++) {
+            controllers.get(i).updateAbsolutePosition();
+        }
+
         if (skatolo.getWindow() != null) {
             setPointerOver(false);
         }
@@ -334,6 +357,14 @@ public abstract class ControllerGroup<T> implements ControllerInterface<T>, Skat
         return new PVector(absolutePosition.x, absolutePosition.y);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    public Bounds getAbsoluteBounds() {
+        absoluteBounds = Bounds.update(absoluteBounds, absolutePosition.x, absolutePosition.y, getWidth(), getHeight());
+        return absoluteBounds;
+    }
+
     /**
      * @exclude {@inheritDoc}
      */
@@ -374,8 +405,9 @@ public abstract class ControllerGroup<T> implements ControllerInterface<T>, Skat
      * {@inheritDoc}
      */
     public T updateAbsolutePosition() {
+        markLayoutChanged();
         absolutePosition.set(position);
-        absolutePosition.add(_myParent.getAbsolutePosition());
+        absolutePosition.add(_myParent.absolutePosition);
         for (int i = 0; i < controllers.size(); i++) {
             controllers.get(i).updateAbsolutePosition();
         }
@@ -438,7 +470,12 @@ public abstract class ControllerGroup<T> implements ControllerInterface<T>, Skat
      */
     public T updateEvents() {
         if (isOpen) {
+            // with a spatial index, the window visits the controllers itself.
+            boolean isIndexed = getWindow().isSpatialIndexEnabled();
             for (int i = controllers.size() - 1; i >= 0; i--) {
+                if (isIndexed && controllers.get(i) instanceof Controller<?>) {
+                    continue;
+                }
                 ((ControllerInterface<?>) controllers.get(i)).updateEvents();
             }
         }
@@ -447,8 +484,128 @@ public abstract class ControllerGroup<T> implements ControllerInterface<T>, Skat
             return me;
         }
 
+        ControlWindow window = getWindow();
+        if (window.isSinglePassDispatch()) {
+            updateEventsForAllPointers(window);
+        } else {
+            handlePointerEvents();
+        }
+        return me;
+    }
+
+    /**
+     * single pass dispatch: runs the events of each active pointer with its
+     * own inside and pressed state, then merges these states.
+     */
+    private void updateEventsForAllPointers(ControlWindow theWindow) {
+        Pointer current = theWindow.getCurrentPointer();
+        List<Pointer> active = theWindow.getActivePointers();
+        for (int i = 0; i < active.size(); i++) {
+            Pointer p = active.get(i);
+            theWindow.setCurrentPointer(p);
+            loadPointerState(p);
+            handlePointerEvents();
+            storePointerState(p);
+        }
+
+        // Pointers removed since the last frame.
+        if (pointerStates != null) {
+            Iterator<Pointer> it = pointerStates.keySet().iterator();
+            while (it.hasNext()) {
+                Pointer p = it.next();
+                if (!active.contains(p)) {
+                    theWindow.setCurrentPointer(p);
+                    loadPointerState(p);
+                    if (isInside) {
+                        onLeave();
+                        isInside = false;
+                        setPointerOver(false);
+                    }
+                    it.remove();
+                }
+            }
+        }
+        theWindow.setCurrentPointer(current);
+        mergePointerStates(theWindow);
+    }
+
+    private void loadPointerState(Pointer p) {
+        PointerState state = (pointerStates == null) ? null : pointerStates.get(p);
+        if (state == null) {
+            isInside = false;
+            isMousePressed = false;
+            mouseover = false;
+            currentPointer = Pointer.invalidPointer;
+        } else {
+            isInside = state.isInside;
+            isMousePressed = state.isMousePressed;
+            mouseover = state.mouseover;
+            currentPointer = p;
+        }
+    }
+
+    private void storePointerState(Pointer p) {
+        if (!isInside && !isMousePressed && !mouseover) {
+            if (pointerStates != null) {
+                pointerStates.remove(p);
+            }
+            return;
+        }
+        if (pointerStates == null) {
+            pointerStates = new IdentityHashMap<Pointer, PointerState>();
+        }
+        PointerState state = pointerStates.get(p);
+        if (state == null) {
+            state = new PointerState();
+            pointerStates.put(p, state);
+        }
+        state.isInside = isInside;
+        state.isMousePressed = isMousePressed;
+        state.mouseover = mouseover;
+    }
+
+    /**
+     * the state of all the pointers, the current pointer is the first one
+     * pressing the group, else the first one inside, in the order of the
+     * active pointers.
+     */
+    private void mergePointerStates(ControlWindow theWindow) {
+        isInside = false;
+        isMousePressed = false;
+        mouseover = false;
+        currentPointer = Pointer.invalidPointer;
+        if (pointerStates == null) {
+            return;
+        }
+        Pointer inside = Pointer.invalidPointer;
+        List<Pointer> active = theWindow.getActivePointers();
+        for (int i = 0; i < active.size(); i++) {
+            PointerState state = pointerStates.get(active.get(i));
+            if (state == null) {
+                continue;
+            }
+            if (state.isMousePressed && currentPointer == Pointer.invalidPointer) {
+                currentPointer = active.get(i);
+            }
+            if (state.isInside && inside == Pointer.invalidPointer) {
+                inside = active.get(i);
+            }
+            isInside |= state.isInside;
+            isMousePressed |= state.isMousePressed;
+            mouseover |= state.mouseover;
+            // a leaving pointer removed it from the stacks of the others.
+            if (state.mouseover) {
+                theWindow.setMouseOverController(this, active.get(i));
+            }
+        }
+        if (currentPointer == Pointer.invalidPointer) {
+            currentPointer = inside;
+        }
+    }
+
+    private void handlePointerEvents() {
         // responds only to one pointer. 
-        if (currentPointer == skatolo.getWindow().getCurrentPointer()
+        if (currentPointer == getWindow().getCurrentPointer()
                 || currentPointer == Pointer.invalidPointer) {
 
 //            if (isMousePressed != skatolo.getWindow().isPointerPressed()) {
@@ -479,7 +636,13 @@ public abstract class ControllerGroup<T> implements ControllerInterface<T>, Skat
                 }
             }
         }
-        return me;
+    }
+
+    // the next frame needs an event pass, and a new picking buffer.
+    private void markLayoutChanged() {
+        if (skatolo != null && getWindow() != null) {
+            getWindow().markLayoutChanged();
+        }
     }
 
     private boolean isMovingGroup() {
@@ -487,8 +650,8 @@ public abstract class ControllerGroup<T> implements ControllerInterface<T>, Skat
     }
 
     private void moveGroup() {
-        positionBuffer.x += skatolo.getWindow().getPointerX() - skatolo.getWindow().getPointerPrevX();
-        positionBuffer.y += skatolo.getWindow().getPointerY() - skatolo.getWindow().getPointerPrevY();
+        positionBuffer.x += getWindow().getPointerX() - getWindow().getPointerPrevX();
+        positionBuffer.y += getWindow().getPointerY() - getWindow().getPointerPrevY();
         if (skatolo.isShiftDown()) {
             position.x = ((int) (positionBuffer.x) / 10) * 10;
             position.y = ((int) (positionBuffer.y) / 10) * 10;
@@ -517,20 +680,24 @@ public abstract class ControllerGroup<T> implements ControllerInterface<T>, Skat
 
     public T setPointerOver(boolean theFlag) {
 
+        boolean wasOver = mouseover;
         mouseover = (!isBarVisible) ? false : theFlag;
+        if (wasOver != mouseover) {
+            invalidate();
+        }
 
         if (!mouseover) {
             isInside = false;
             isInsideGroup = false;
-            skatolo.getWindow().removeMouseOverFor(this);
+            getWindow().removeMouseOverFor(this);
             for (int i = controllers.size() - 1; i >= 0; i--) {
                 controllers.get(i).setPointerOver(false);
             }
-            currentPointer = skatolo.getWindow().getCurrentPointer();
+            currentPointer = getWindow().getCurrentPointer();
         } else {
             // TODO since inside can be either isInside or isInsideGroup, there are 2 options here,
             // which i am not sure how to handle them yet.
-            skatolo.getWindow().setMouseOverController(this);
+            getWindow().setMouseOverController(this);
             currentPointer = Pointer.invalidPointer;
         }
         return me;
@@ -539,21 +706,10 @@ public abstract class ControllerGroup<T> implements ControllerInterface<T>, Skat
     /**
      *
      * @exclude @param graphics graphics context
-     * @param theApplet PApplet for events
+     * @param theApplet not used, the controllers are updated in update(int)
      */
     public final void draw(PApplet theApplet, PGraphics graphics) {
-        if (isVisible) {
-            graphics.pushMatrix();
-            graphics.translate(position.x, position.y);
-            preDraw(graphics);
-            updateControllers(theApplet);
-            drawControllers(graphics);
-            postDraw(graphics);
-            if (_myValueLabel != null) {
-                _myValueLabel.draw(graphics, 2, 2, this);
-            }
-            graphics.popMatrix();
-        }
+        render(graphics);
     }
 
     /**
@@ -565,8 +721,6 @@ public abstract class ControllerGroup<T> implements ControllerInterface<T>, Skat
             graphics.pushMatrix();
             graphics.translate(position.x, position.y);
             preDraw(graphics);
-            // TODO: fixme -> Find the Applet to forward events ? 
-            // Push outside the draw method !
             drawControllers(graphics);
             postDraw(graphics);
             if (_myValueLabel != null) {
@@ -576,7 +730,6 @@ public abstract class ControllerGroup<T> implements ControllerInterface<T>, Skat
         }
     }
 
-// Legacy, update & draw at the same place. 
     protected void drawControllers(PGraphics graphics) {
         if (isOpen) {
             for (Canvas cc : _myCanvas) {
@@ -584,14 +737,26 @@ public abstract class ControllerGroup<T> implements ControllerInterface<T>, Skat
                     cc.draw(graphics);
                 }
             }
+            ControlWindow window = getWindow();
+            RetainedRenderer retained = window.getRetainedRenderer();
+            Viewport viewport = window.getViewport();
+            boolean isClipped = viewport != null && viewport.push(getClipBounds());
             for (ControllerInterface<?> ci : controllers.get()) {
                 if (ci.isVisible()) {
+                    // retained mode: only the controllers in the damaged region.
+                    if (retained != null && !retained.isDamaged(ci)) {
+                        continue;
+                    }
+                    if (viewport != null && !viewport.isVisible(ci)) {
+                        continue;
+                    }
+                    window.stampDrawOrder(ci);
                     ci.draw(graphics);
-
-                    // TODO: This shoud NOT be HERE !!
-                    ci.updateInternalEvents(skatolo.getPApplet());
                 }
             }
+            if (isClipped) {
+                viewport.pop();
+            }
 
             for (CDrawable cd : controllers.getDrawables()) {
                 cd.draw(graphics);
@@ -605,15 +770,51 @@ public abstract class ControllerGroup<T> implements ControllerInterface<T>, Skat
         }
     }
 
-    protected void updateControllers(PApplet theApplet) {
+    /**
+     * the update phase of the group: its visible controllers first, in
+     * drawing order, then the group itself.
+     *
+     * @see ControllerInterface#update(int)
+     */
+    public T update(int theFrame) {
         if (isOpen) {
             for (ControllerInterface<?> ci : controllers.get()) {
                 if (ci.isVisible()) {
-                    ci.updateInternalEvents(theApplet);
+                    ci.update(theFrame);
                 }
             }
+        }
+        return updateInternalEvents(skatolo.getPApplet());
+    }
 
+    /**
+     * @see ControllerInterface#render(PGraphics)
+     */
+    public void render(PGraphics graphics) {
+        draw(graphics);
+    }
+
+    /**
+     * draws the group again in retained mode.
+     *
+     * @see ControlWindow#enableRetainedMode()
+     */
+    public T invalidate() {
+        if (skatolo != null && getWindow() != null) {
+            getWindow().damage(this);
         }
+        return me;
+    }
+
+    /**
+     * the area outside which the controllers of the group are not visible, in
+     * window coordinates. Used to cull the controllers, null when the group
+     * does not clip its controllers.
+     *
+     * @see ControlWindow#enableCulling()
+     */
+    public Bounds getClipBounds() {
+        return null;
     }
 
     protected void preDraw(PGraphics graphics) {
@@ -654,9 +855,18 @@ public abstract class ControllerGroup<T> implements ControllerInterface<T>, Skat
      */
     public T add(ControllerInterface<?> theElement) {
         controllers.add(theElement);
+        markLayoutChanged();
         return me;
     }
 
+    /**
+     * @exclude
+     * @return ControllerList
+     */
+    public ControllerList getControllers() {
+        return controllers;
+    }
+
     @Override
     public T bringToFront() {
         return bringToFront(this);
@@ -690,6 +900,7 @@ public abstract class ControllerGroup<T> implements ControllerInterface<T>, Skat
             theElement.setPointerOver(false);
         }
         controllers.remove(theElement);
+        markLayoutChanged();
         return me;
     }
 
@@ -715,7 +926,7 @@ public abstract class ControllerGroup<T> implements ControllerInterface<T>, Skat
      * removes the group from skatolo.
      */
     public void remove() {
-        skatolo.getWindow().removeMouseOverFor(this);
+        getWindow().removeMouseOverFor(this);
         if (_myParent != null) {
             _myParent.remove(this);
         }
@@ -730,7 +941,7 @@ public abstract class ControllerGroup<T> implements ControllerInterface<T>, Skat
         controllers.clearDrawable();
         controllers = new ControllerList();
         if (this instanceof Tab) {
-            skatolo.getWindow().removeTab((Tab) this);
+            getWindow().removeTab((Tab) this);
         }
     }
 
@@ -763,6 +974,12 @@ public abstract class ControllerGroup<T> implements ControllerInterface<T>, Skat
      * @return ControlWindow
      */
     public ControlWindow getWindow() {
+        if (tabWindow != null) {
+            return tabWindow;
+        }
+        if (_myParent != null && _myParent != this) {
+            return _myParent.getWindow();
+        }
         return skatolo.getWindow();
     }
 
@@ -788,6 +1005,19 @@ public abstract class ControllerGroup<T> implements ControllerInterface<T>, Skat
                 return true;
             }
         }
+        ControlWindow window = getWindow();
+        if (window.isSinglePassDispatch()) {
+            Pointer p = window.getCurrentPointer();
+            loadPointerState(p);
+            boolean isPressed = updateMousePressed(theStatus);
+            storePointerState(p);
+            mergePointerStates(window);
+            return isPressed;
+        }
+        return updateMousePressed(theStatus);
+    }
+
+    private boolean updateMousePressed(boolean theStatus) {
         if (theStatus == true) {
             if (isInside) {
                 isMousePressed = true;
@@ -851,6 +1081,7 @@ public abstract class ControllerGroup<T> implements ControllerInterface<T>, Skat
         for (ControllerInterface<?> ci : controllers.get()) {
             ci.setColorActive(theColor);
         }
+        invalidate();
         return me;
     }
 
@@ -862,6 +1093,7 @@ public abstract class ControllerGroup<T> implements ControllerInterface<T>, Skat
         for (ControllerInterface<?> ci : controllers.get()) {
             ci.setColorForeground(theColor);
         }
+        invalidate();
         return me;
     }
 
@@ -873,6 +1105,7 @@ public abstract class ControllerGroup<T> implements ControllerInterface<T>, Skat
         for (ControllerInterface<?> ci : controllers.get()) {
             ci.setColorBackground(theColor);
         }
+        invalidate();
         return me;
     }
 
@@ -887,6 +1120,7 @@ public abstract class ControllerGroup<T> implements ControllerInterface<T>, Skat
         for (ControllerInterface<?> ci : controllers.get()) {
             ci.setColorLabel(theColor);
         }
+        invalidate();
         return me;
     }
 
@@ -901,6 +1135,7 @@ public abstract class ControllerGroup<T> implements ControllerInterface<T>, Skat
         for (ControllerInterface<?> ci : controllers.get()) {
             ci.setColorValue(theColor);
         }
+        invalidate();
         return me;
     }
 
@@ -910,6 +1145,7 @@ public abstract class ControllerGroup<T> implements ControllerInterface<T>, Skat
      */
     public T setLabel(String theLabel) {
         _myLabel.set(theLabel);
+        invalidate();
         return me;
     }
 
@@ -931,16 +1167,19 @@ public abstract class ControllerGroup<T> implements ControllerInterface<T>, Skat
      */
     public T setVisible(boolean theFlag) {
         isVisible = theFlag;
+        markLayoutChanged();
         return me;
     }
 
     public T hide() {
         isVisible = false;
+        markLayoutChanged();
         return me;
     }
 
     public T show() {
         isVisible = true;
+        markLayoutChanged();
         return me;
     }
 
@@ -962,6 +1201,7 @@ public abstract class ControllerGroup<T> implements ControllerInterface<T>, Skat
 
     public T setOpen(boolean theFlag) {
         isOpen = theFlag;
+        markLayoutChanged();
         return me;
     }
 
@@ -1051,6 +1291,21 @@ public abstract class ControllerGroup<T> implements ControllerInterface<T>, Skat
         return _myPickingColor;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    public int getDrawOrder() {
+        return drawOrder;
+    }
+
+    /**
+     * @exclude
+     */
+    public T setDrawOrder(int theOrder) {
+        drawOrder = theOrder;
+        return me;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -1135,6 +1390,7 @@ public abstract class ControllerGroup<T> implements ControllerInterface<T>, Skat
 
     public T setCaptionLabel(String theValue) {
         getCaptionLabel().set(theValue);
+        invalidate();
         return me;
     }
 
@@ -1205,8 +1461,8 @@ public abstract class ControllerGroup<T> implements ControllerInterface<T>, Skat
     }
 
     protected boolean inside() {
-        return (skatolo.getWindow().getPointerX() > position.x + _myParent.absolutePosition.x && skatolo.getWindow().getPointerX() < position.x + _myParent.absolutePosition.x + _myWidth
-                && skatolo.getWindow().getPointerY() > position.y + _myParent.absolutePosition.y - _myHeight && skatolo.getWindow().getPointerY() < position.y + _myParent.absolutePosition.y);
+        return (getWindow().getPointerX() > position.x + _myParent.absolutePosition.x && getWindow().getPointerX() < position.x + _myParent.absolutePosition.x + _myWidth
+                && getWindow().getPointerY() > position.y + _myParent.absolutePosition.y - _myHeight && getWindow().getPointerY() < position.y + _myParent.absolutePosition.y);
     }
 
     /**
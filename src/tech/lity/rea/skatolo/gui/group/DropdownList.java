@@ -232,6 +232,7 @@ public class DropdownList extends ControlGroup<DropdownList> {
 		for (int i = 0; i < buttons.size(); i++) {
 			buttons.get(i).height = theHeight;
 			buttons.get(i).position.y = (theHeight + spacing) * i;
+			buttons.get(i).updateAbsolutePosition();
 		}
 		setHeight(_myOriginalBackgroundHeight);
 		return this;
@@ -267,10 +268,10 @@ public class DropdownList extends ControlGroup<DropdownList> {
 	 * @exclude {@inheritDoc}
 	 */
 	@Override public DropdownList updateInternalEvents(PApplet theApplet) {
-		boolean xx = skatolo.getWindow().getPointerX() > getAbsolutePosition().x && skatolo.getWindow().getPointerX() < getAbsolutePosition().x + _myWidth;
+		boolean xx = skatolo.getWindow().getPointerX() > absolutePosition.x && skatolo.getWindow().getPointerX() < absolutePosition.x + _myWidth;
 		// there is a 1px gap between bar and controllers, so -1 the top-y-position
-		boolean yy = skatolo.getWindow().getPointerY() > getAbsolutePosition().y - 1
-				&& skatolo.getWindow().getPointerY() < getAbsolutePosition().y + _myBackgroundHeight;
+		boolean yy = skatolo.getWindow().getPointerY() > absolutePosition.y - 1
+				&& skatolo.getWindow().getPointerY() < absolutePosition.y + _myBackgroundHeight;
 		isInsideGroup = isOpen() ? xx && yy : false;
 		if ((isBarVisible ? isInside : false) || isInsideGroup) {
 			skatolo.getWindow().setMouseOverController(this);
@@ -306,10 +307,12 @@ public class DropdownList extends ControlGroup<DropdownList> {
 		if (b) {
 			for (int i = 1; i < controllers.size(); i++) {
 				((Button) controllers.get(i)).width = _myWidth - _myScrollbarWidth - 1;
+				controllers.get(i).updateAbsolutePosition();
 			}
 		} else {
 			for (int i = 1; i < controllers.size(); i++) {
 				((Button) controllers.get(i)).width = _myWidth;
+				controllers.get(i).updateAbsolutePosition();
 			}
 		}
 	}
@@ -325,6 +328,7 @@ public class DropdownList extends ControlGroup<DropdownList> {
 		_myWidth = theWidth;
 		updateButtonWidth();
 		_myScrollbar.position.x = _myWidth - _myScrollbarWidth;
+		_myScrollbar.updateAbsolutePosition();
 		return this;
 	}
 
@@ -500,8 +504,8 @@ public class DropdownList extends ControlGroup<DropdownList> {
 	 */
 	public void keyEvent(final KeyEvent theEvent) {
 		super.keyEvent(theEvent);
-		float x = getAbsolutePosition().x;
-		float y = getAbsolutePosition().y;
+		float x = absolutePosition.x;
+		float y = absolutePosition.y;
 		boolean b = (getWindow().getPointerX() > x && getWindow().getPointerX() < (x + _myWidth) && getWindow().getPointerY() > (y - getBarHeight()) && getWindow().getPointerY() < y
 				+ _myOriginalBackgroundHeight);
 		if (b && isOpen()) {
@@ -25,6 +25,7 @@
 package tech.lity.rea.skatolo.gui.group;
 
 import tech.lity.rea.skatolo.gui.controllers.Button;
+import tech.lity.rea.skatolo.gui.Bounds;
 import tech.lity.rea.skatolo.gui.CColor;
 import tech.lity.rea.skatolo.events.ControlEvent;
 import tech.lity.rea.skatolo.events.ControlListener;
@@ -221,6 +222,7 @@ public class ListBox extends ControlGroup<ListBox> implements ControlListener {
 		for (int i = 0; i < buttons.size(); i++) {
 			buttons.get(i).height = theHeight;
 			buttons.get(i).position.y = (theHeight + spacing) * i;
+			buttons.get(i).updateAbsolutePosition();
 		}
 		setHeight(_myOriginalBackgroundHeight);
 		return this;
@@ -259,9 +261,9 @@ public class ListBox extends ControlGroup<ListBox> implements ControlListener {
 	 * @exclude {@inheritDoc}
 	 */
 	@Override public ListBox updateInternalEvents(PApplet theApplet) {
-		boolean xx = skatolo.getWindow().getPointerX() > getAbsolutePosition().x && skatolo.getWindow().getPointerX() < getAbsolutePosition().x + _myWidth;
+		boolean xx = skatolo.getWindow().getPointerX() > absolutePosition.x && skatolo.getWindow().getPointerX() < absolutePosition.x + _myWidth;
 		// there is a 1px gap between bar and controllers, so -1 the top-y-position
-		boolean yy = skatolo.getWindow().getPointerY() > getAbsolutePosition().y - 1 && skatolo.getWindow().getPointerY() < getAbsolutePosition().y + _myBackgroundHeight;
+		boolean yy = skatolo.getWindow().getPointerY() > absolutePosition.y - 1 && skatolo.getWindow().getPointerY() < absolutePosition.y + _myBackgroundHeight;
 		isInsideGroup = isOpen() ? xx && yy : false;
 		if ((isBarVisible ? isInside : false) || isInsideGroup) {
 			skatolo.getWindow().setMouseOverController(this);
@@ -270,6 +272,20 @@ public class ListBox extends ControlGroup<ListBox> implements ControlListener {
 	}
 
 
+	private Bounds clipBounds;
+
+
+	/**
+	 * the items are not visible outside the background of the list.
+	 * 
+	 * @exclude {@inheritDoc}
+	 */
+	@Override public Bounds getClipBounds() {
+		clipBounds = Bounds.update(clipBounds, absolutePosition.x, absolutePosition.y - 1, _myWidth, _myBackgroundHeight + 1);
+		return clipBounds;
+	}
+
+
 	protected void updateScroll() {
 		_myScrollValue = _myScrollbar.getValue();
 		_myScrollbar.setValue(_myScrollValue);
@@ -301,11 +317,13 @@ public class ListBox extends ControlGroup<ListBox> implements ControlListener {
 		if (b) {
 			for (int i = 1; i < controllers.size(); i++) {
 				((Button) controllers.get(i)).width = _myWidth - _myScrollbarWidth - 1;
+				controllers.get(i).updateAbsolutePosition();
 			}
 		}
 		else {
 			for (int i = 1; i < controllers.size(); i++) {
 				((Button) controllers.get(i)).width = _myWidth;
+				controllers.get(i).updateAbsolutePosition();
 			}
 		}
 	}
@@ -323,6 +341,7 @@ public class ListBox extends ControlGroup<ListBox> implements ControlListener {
 		_myWidth = theWidth;
 		updateButtonWidth();
 		_myScrollbar.position.x = _myWidth - _myScrollbarWidth;
+		_myScrollbar.updateAbsolutePosition();
 		return this;
 	}
 
@@ -522,8 +541,8 @@ public class ListBox extends ControlGroup<ListBox> implements ControlListener {
 	 */
 	public void keyEvent(final KeyEvent theEvent) {
 		super.keyEvent(theEvent);
-		float x = getAbsolutePosition().x;
-		float y = getAbsolutePosition().y;
+		float x = absolutePosition.x;
+		float y = absolutePosition.y;
 		boolean b = (getWindow().getPointerX() > x && getWindow().getPointerX() < (x + _myWidth) && getWindow().getPointerY() > (y - getBarHeight()) && getWindow().getPointerY() < y + _myOriginalBackgroundHeight);
 		if (b && isOpen()) {
 			float step = (1.0f / (float) items.size());
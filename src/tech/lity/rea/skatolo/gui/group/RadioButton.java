@@ -351,6 +351,7 @@ public class RadioButton extends ControlGroup<RadioButton> {
 			Toggle t = _myRadioToggles.get(i);
 			t.position.y = yy;
 			t.position.x = xx;
+			t.updateAbsolutePosition();
 
 			xx += t.width + spacingColumn;
 			nn++;
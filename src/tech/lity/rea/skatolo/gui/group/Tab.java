@@ -68,6 +68,7 @@ public class Tab extends ControllerGroup<Tab> {
 	 */
 	public Tab(Skatolo theskatolo, ControlWindow theControlWindow, String theName) {
 		super(theskatolo, null, theName, 0, 0);
+		tabWindow = theControlWindow;
 		position = new PVector();
 		absolutePosition = new PVector();
 		isMoveable = false;
@@ -191,8 +192,9 @@ public class Tab extends ControllerGroup<Tab> {
 	 */
 	@Override
 	public Tab moveTo(ControlWindow theWindow) {
-		skatolo.getWindow().removeTab(this);
+		getWindow().removeTab(this);
 		setTab(theWindow, getName());
+		tabWindow = theWindow;
 		return this;
 	}
 